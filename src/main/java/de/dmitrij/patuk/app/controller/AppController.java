@@ -1,5 +1,6 @@
 package de.dmitrij.patuk.app.controller;
 
+import de.dmitrij.patuk.app.models.AppListModel;
 import de.dmitrij.patuk.app.models.AppListResultModel;
 import de.dmitrij.patuk.app.models.AppModelFactory;
 import de.dmitrij.patuk.app.services.AppService;
@@ -36,11 +37,21 @@ public class AppController {
     }
 
     @MyTinyGet(route = "apps")
+    @MyTinyCacheable(ttl = 30, staleWhileRevalidate = 300, staleIfError = 3600)
+    @MyTinyCoalesce
     public MyTinyModelAndView apps() {
         return new MyTinyModelAndView("/apps",
                 new AppListResultModel(AppModelFactory.createAppListModels()));
     }
 
+    @MyTinyGet(route = "apps/{list}")
+    @MyTinyCacheable(ttl = 30)
+    public MyTinyModelAndView appList(@MyTinyPathVariable(name = "list") int list) {
+        var lists = AppModelFactory.createAppListModels();
+        var selected = list >= 0 && list < lists.size() ? List.of(lists.get(list)) : List.<AppListModel>of();
+        return new MyTinyModelAndView("/apps", new AppListResultModel(selected));
+    }
+
     private String wrapInHtml(String controller, String serviceResult) {
         return String.format("<html><body style=\"color: white; background-color: black\"><h1>Welcome To</h1><p>%s</p><p>%s</p></body></html>", controller, serviceResult);
     }
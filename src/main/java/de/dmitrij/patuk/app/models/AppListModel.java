@@ -3,17 +3,23 @@ package de.dmitrij.patuk.app.models;
 import java.util.List;
 
 public class AppListModel {
+    private final int id;
     private List<AppModel> apps;
     private  String title;
     private  String description;
 
 
-    public AppListModel(List<AppModel> apps, String title, String description) {
+    public AppListModel(int id, List<AppModel> apps, String title, String description) {
+        this.id = id;
         this.apps = apps;
         this.title = title;
         this.description = description;
     }
 
+    public int getId() {
+        return id;
+    }
+
     public List<AppModel> getApps() {
         return apps;
     }
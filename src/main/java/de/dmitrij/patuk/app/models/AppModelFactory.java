@@ -19,6 +19,7 @@ public class AppModelFactory {
                         "https://example.com/install/" + i + "." + j));
             }
             appListModels.add(new AppListModel(
+                    i,
                     apps,
                     "Lorem Ipsum Title " + i,
                     "Lorem ipsum dolor sit amet, consectetur adipiscing elit. List " + i
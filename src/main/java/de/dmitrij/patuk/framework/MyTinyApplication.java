@@ -1,9 +1,12 @@
 package de.dmitrij.patuk.framework;
 
+import de.dmitrij.patuk.template.MyTinyFragmentCache;
+import de.dmitrij.patuk.template.MyTinyParallelForeach;
 import de.dmitrij.patuk.template.MyTinyParser;
 import de.dmitrij.patuk.template.MyTinyTokenizer;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.Executors;
 
 public class MyTinyApplication {
     public static void run(Class<?> appClass, String[] args) {
@@ -38,13 +41,32 @@ public class MyTinyApplication {
         }
 
         var classProvider = new MyTinyClassProvider(context, propertiesProvider);
-        var server = new MyTinyHttpServer(8080);
+        var server = new MyTinyHttpServer(
+                propertiesScanner.getInt("my.boot.server.port", 8080),
+                propertiesScanner.getInt("my.boot.server.backlog", MyTinyHttpServer.DEFAULT_BACKLOG),
+                MyTinyExecutionMode.fromProperty(propertiesScanner.get("my.boot.server.execution-mode")),
+                propertiesScanner.getInt("my.boot.server.pool-size", Runtime.getRuntime().availableProcessors()))
+                .withResponseCache(new MyTinyResponseCache(
+                        propertiesScanner.getLong("my.boot.server.response-cache-bytes", MyTinyResponseCache.DEFAULT_MAX_BYTES)));
 
         //new ====================
         var viewProvider = new MyTinyViewProvider();
         var tokenizer = new MyTinyTokenizer();
         var parser = new MyTinyParser();
-        var viewRenderer = new MyTinyViewRenderer(viewProvider, parser, tokenizer);
+        //rendering is cpu work, the virtual threads run on the carrier pool with one thread per core
+        var renderExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        var templateCache = new MyTinyTemplateCache(
+                propertiesScanner.getInt("my.boot.view.cache-size", MyTinyTemplateCache.DEFAULT_MAX_SIZE));
+        var viewRenderer = new MyTinyViewRenderer(viewProvider, parser, tokenizer, templateCache)
+                .withCompiledTemplates(Boolean.parseBoolean(propertiesScanner.get("my.boot.view.compile", "false")))
+                //my.boot.view.minify is the default, my.boot.view.minify./app/apps overrides it for one view
+                .withMinifiedViews(viewName -> Boolean.parseBoolean(propertiesScanner.get(
+                        "my.boot.view.minify." + viewName, propertiesScanner.get("my.boot.view.minify", "false"))))
+                .withParallelForeach(new MyTinyParallelForeach(renderExecutor,
+                        propertiesScanner.getInt("my.boot.view.parallel-threshold", 0),
+                        propertiesScanner.getInt("my.boot.view.parallel-chunk-size", MyTinyParallelForeach.DEFAULT_CHUNK_SIZE)))
+                .withFragmentCache(new MyTinyFragmentCache(
+                        propertiesScanner.getLong("my.boot.view.fragment-cache-bytes", MyTinyFragmentCache.DEFAULT_MAX_BYTES)));
         var myRequestParamHandler = new MyTinyRequestParamHandler();
         var controllerHandler = new MyTinyControllerHandler(server, classProvider, myRequestParamHandler, viewRenderer);
         //new ====================
@@ -60,6 +82,7 @@ public class MyTinyApplication {
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             System.out.println("Shutting down server...");
             server.stop();
+            renderExecutor.shutdown();
             System.out.println("Server stopped.");
         }));
     }
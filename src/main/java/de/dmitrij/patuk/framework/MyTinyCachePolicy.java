@@ -0,0 +1,20 @@
+package de.dmitrij.patuk.framework;
+
+//How long the server keeps the responses of a route, all times in seconds.
+//          ttl                  staleWhileRevalidate
+//  put |--- fresh ---|--- stale, served while one refresh runs ---|
+//                    |------------- staleIfError, served when the controller fails -------------|
+public record MyTinyCachePolicy(long ttlSeconds, long staleWhileRevalidateSeconds, long staleIfErrorSeconds) {
+    public static MyTinyCachePolicy of(MyTinyCacheable cacheable) {
+        return new MyTinyCachePolicy(cacheable.ttl(), cacheable.staleWhileRevalidate(), cacheable.staleIfError());
+    }
+
+    public static MyTinyCachePolicy ttl(long ttlSeconds) {
+        return new MyTinyCachePolicy(ttlSeconds, 0, 0);
+    }
+
+    //how long an entry has to stay after its ttl ran out
+    public long retainSeconds() {
+        return Math.max(staleWhileRevalidateSeconds, staleIfErrorSeconds);
+    }
+}
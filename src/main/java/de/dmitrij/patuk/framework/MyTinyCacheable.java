@@ -0,0 +1,23 @@
+package de.dmitrij.patuk.framework;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+//Put on a @MyTinyGet method whose response only depends on the path and the query.
+//The server keeps the whole response for ttl seconds and answers the same request from memory,
+//the controller is not called at all, see MyTinyResponseCache
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface MyTinyCacheable {
+    //seconds
+    long ttl() default 60;
+
+    //seconds after the ttl in which the old response is still sent right away while one request
+    //runs the controller in the background to refresh it
+    long staleWhileRevalidate() default 0;
+
+    //seconds after the ttl in which the old response is sent when the controller fails
+    long staleIfError() default 0;
+}
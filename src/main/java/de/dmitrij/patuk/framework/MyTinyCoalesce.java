@@ -0,0 +1,14 @@
+package de.dmitrij.patuk.framework;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+//Put on a @MyTinyGet method whose response only depends on the path and the query.
+//Requests that arrive while the same request is still running wait for it and get its response
+//instead of calling the controller again, see MyTinySingleFlight
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface MyTinyCoalesce {
+}
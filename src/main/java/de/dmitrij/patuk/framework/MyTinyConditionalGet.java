@@ -0,0 +1,80 @@
+package de.dmitrij.patuk.framework;
+
+import com.sun.net.httpserver.Headers;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.zip.CRC32C;
+
+//Lets a client keep its copy of a page when nothing changed.
+//We send a tag of the body as ETag and the client asks with it the next time:
+//  200 ETag: "5d1e29a3-1f40"             -> If-None-Match: "5d1e29a3-1f40" -> 304 without a body
+//  200 Last-Modified: Sun, 18 Oct 2026 ... -> If-Modified-Since: Sun, ...  -> 304 without a body
+//If-None-Match wins over If-Modified-Since when a client sends both.
+public final class MyTinyConditionalGet {
+    private MyTinyConditionalGet() {
+    }
+
+    //a crc of the body and its length, computing it costs far less than sending the body again
+    public static String etag(byte[] body) {
+        var crc = new CRC32C();
+        crc.update(body);
+        return quote(Long.toHexString(crc.getValue()) + "-" + Integer.toHexString(body.length));
+    }
+
+    //a version the controller picked, e.g. the id of the last change of the shown data
+    public static String quote(String version) {
+        if (version.startsWith("\"") || version.startsWith("W/\"")) {
+            return version;
+        }
+        return "\"" + version + "\"";
+    }
+
+    public static String httpDate(Instant instant) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(instant.truncatedTo(ChronoUnit.SECONDS).atOffset(ZoneOffset.UTC));
+    }
+
+    //true when the copy of the client is still the one we would send, etag or lastModified may be null
+    public static boolean isNotModified(Headers requestHeaders, String etag, String lastModified) {
+        var ifNoneMatch = requestHeaders.getFirst("If-None-Match");
+        if (ifNoneMatch != null) {
+            return etag != null && matches(ifNoneMatch, etag);
+        }
+        var ifModifiedSince = requestHeaders.getFirst("If-Modified-Since");
+        if (ifModifiedSince != null && lastModified != null) {
+            var since = parseHttpDate(ifModifiedSince);
+            var modified = parseHttpDate(lastModified);
+            return since != null && modified != null && !modified.isAfter(since);
+        }
+        return false;
+    }
+
+    //If-None-Match is a list of tags or *, for a GET a weak tag matches its strong form
+    private static boolean matches(String ifNoneMatch, String etag) {
+        var tag = stripWeak(etag);
+        for (var candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*") || stripWeak(candidate).equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    //a broken date is ignored, the client just gets the whole page
+    private static Instant parseHttpDate(String value) {
+        try {
+            return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
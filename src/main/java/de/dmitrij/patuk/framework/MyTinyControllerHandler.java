@@ -1,13 +1,17 @@
 package de.dmitrij.patuk.framework;
 
-import java.lang.reflect.InvocationTargetException;
-import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 public class MyTinyControllerHandler {
     private final MyTinyHttpServer server;
     private final MyTinyClassProvider classProvider;
     private final MyTinyRequestParamHandler requestQueryHandler;
     private final MyTinyViewRenderer viewRenderer;
+    private final MyTinyInvokerFactory invokerFactory = new MyTinyInvokerFactory();
+    //route -> the single flight of a @MyTinyCoalesce route, for its metrics
+    private final Map<String, MyTinySingleFlight> singleFlights = new ConcurrentHashMap<>();
 
     public MyTinyControllerHandler(MyTinyHttpServer server,
                                    MyTinyClassProvider classProvider,
@@ -27,6 +31,7 @@ public class MyTinyControllerHandler {
         var classAnnotation = controller.getAnnotation(MyTinyController.class);
         var classRoute = classAnnotation.route();
         System.out.printf("Registering class route: %s\n", classRoute);
+        var controllerInstance = createInstanceSupplier(controller);
         var methods = controller.getDeclaredMethods();
         for (var method : methods) {
             if (method.isAnnotationPresent(MyTinyGet.class)) {
@@ -34,33 +39,90 @@ public class MyTinyControllerHandler {
                 var methodRoute = methodAnnotation.route();
                 System.out.printf("Registering method route: %s\n", methodRoute);
 
-                server.bindContext(classRoute + "/" + methodRoute, (String query) -> {
-                    var queryParams = requestQueryHandler.getRequestParams(query);
+                var invoker = invokerFactory.create(method);
+                var binders = requestQueryHandler.compile(method).toArray(new MyTinyParamBinder[0]);
+                var type = method.getReturnType();
 
-                    try {
-                        var controllerInstance = classProvider.getBeanClass(controller);
-                        var methodParams = method.getParameters();
-                        ArrayList<Object> params = new ArrayList<>();
-                        for (var param : methodParams) {
-                            if(requestQueryHandler.canHandle(param)){
-                               params.add(requestQueryHandler.handle(param, queryParams));
-                            }
-                        }
-                        var type = method.getReturnType();
-                        if(type == String.class) {
-                            return (String) method.invoke(controllerInstance,  params.toArray());
+                var route = classRoute + "/" + methodRoute;
+                for (var binder : binders) {
+                    if (binder.isPathVariable() && !route.contains("{" + binder.getName() + "}")) {
+                        throw new RuntimeException("Route " + route + " has no path variable " + binder.getName());
+                    }
+                }
+
+                MyTinyHttpServer.GetResponse handler = request -> {
+                    var instance = controllerInstance.get();
+                    var params = new Object[binders.length];
+                    for (int i = 0; i < binders.length; i++) {
+                        params[i] = binders[i].bind(request);
+                    }
+                    if(type == String.class) {
+                        return MyTinyResponse.ok((String) invoke(invoker, instance, params));
+                    }
+                    if(type == MyTinyModelAndView.class) {
+                        var mv = (MyTinyModelAndView) invoke(invoker, instance, params);
+                        var viewName = classRoute +  mv.getViewName();
+                        var response = MyTinyResponse.stream(viewRenderer.renderBody(viewName, mv.getModel()));
+                        if (mv.getVersion() != null) {
+                            response.etag(mv.getVersion());
                         }
-                        if(type == MyTinyModelAndView.class) {
-                            var mv = (MyTinyModelAndView) method.invoke(controllerInstance, params.toArray());
-                            var viewName = classRoute +  mv.getViewName();
-                            return viewRenderer.render(viewName, mv.getModel());
+                        if (mv.getLastModified() != null) {
+                            response.lastModified(mv.getLastModified());
                         }
-                        throw new RuntimeException("No suitable rendering method found!");
-                    } catch (IllegalAccessException | InvocationTargetException e) {
-                        throw new RuntimeException(e);
+                        return response;
+                    }
+                    if(type == MyTinyResponse.class) {
+                        return (MyTinyResponse) invoke(invoker, instance, params);
                     }
-                });
+                    throw new RuntimeException("No suitable rendering method found!");
+                };
+                if (method.isAnnotationPresent(MyTinyCoalesce.class)) {
+                    System.out.printf("Coalescing concurrent requests of %s\n", route);
+                    var singleFlight = new MyTinySingleFlight();
+                    singleFlights.put(route, singleFlight);
+                    var dispatch = handler;
+                    handler = request -> singleFlight.run(
+                            MyTinyResponseCache.key(request.getPath(), request.getQuery()), () -> dispatch.handle(request));
+                }
+                if (method.isAnnotationPresent(MyTinyCacheable.class)) {
+                    var policy = MyTinyCachePolicy.of(method.getAnnotation(MyTinyCacheable.class));
+                    System.out.printf("Caching responses of %s: %s\n", route, policy);
+                    server.bindContext(route, handler, policy);
+                } else {
+                    server.bindContext(route, handler);
+                }
             }
         }
     }
+
+    //null if the route does not coalesce its requests
+    public MyTinySingleFlight getSingleFlight(String route) {
+        return singleFlights.get(route);
+    }
+
+    private Object invoke(MyTinyMethodInvoker invoker, Object instance, Object[] params) {
+        try {
+            return invoker.invoke(instance, params);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    //singletons are built once here, so a request does not pay for constructor lookup and injection
+    private Supplier<?> createInstanceSupplier(Class<?> controller) {
+        var scope = MyTinyScopeType.SINGLETON;
+        if (controller.isAnnotationPresent(MyTinyScope.class)) {
+            scope = controller.getAnnotation(MyTinyScope.class).value();
+        }
+        System.out.printf("Controller %s has scope %s\n", controller.getSimpleName(), scope);
+        return switch (scope) {
+            case SINGLETON -> {
+                var instance = classProvider.getBeanClass(controller);
+                yield () -> instance;
+            }
+            case PROTOTYPE -> () -> classProvider.getBeanClass(controller);
+        };
+    }
 }
@@ -0,0 +1,47 @@
+package de.dmitrij.patuk.framework;
+
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//How the http server runs the request handlers
+//VIRTUAL - every request gets its own virtual thread, slow controllers don't block each other
+//POOL    - a fixed number of platform threads
+//SINGLE  - everything runs on the dispatcher thread of the jdk server (the old behaviour)
+public enum MyTinyExecutionMode {
+    VIRTUAL,
+    POOL,
+    SINGLE;
+
+    public static MyTinyExecutionMode fromProperty(String value) {
+        if (value == null || value.isBlank()) {
+            return VIRTUAL;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown execution mode: " + value, e);
+        }
+    }
+
+    //returns null for SINGLE, the jdk server then uses its own dispatcher thread
+    public ExecutorService createExecutor(int poolSize) {
+        return switch (this) {
+            case VIRTUAL -> Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("my-tiny-request-", 0).factory());
+            case POOL -> {
+                if (poolSize < 1) {
+                    throw new IllegalArgumentException("Pool size must be at least 1 but was " + poolSize);
+                }
+                var counter = new AtomicInteger();
+                yield Executors.newFixedThreadPool(poolSize, runnable -> {
+                    var thread = new Thread(runnable, "my-tiny-request-" + counter.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            case SINGLE -> null;
+        };
+    }
+}
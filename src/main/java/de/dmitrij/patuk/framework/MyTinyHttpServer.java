@@ -1,20 +1,41 @@
 package de.dmitrij.patuk.framework;
 
+import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpServer;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
-import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 
 public class MyTinyHttpServer {
+    //0 lets the jdk pick its default backlog
+    public static final int DEFAULT_BACKLOG = 0;
+
     private final int port;
+    private final ExecutorService executor;
     private HttpServer server;
+    //all routes, the jdk server only has one context that hands every request to the router
+    private final MyTinyRouter<Route> router = new MyTinyRouter<>();
+    private MyTinyResponseCache responseCache = new MyTinyResponseCache();
+    //runs the refreshes of stale cached responses, never on a request thread
+    private final ExecutorService refreshExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
     public MyTinyHttpServer(int port) {
+        this(port, DEFAULT_BACKLOG, MyTinyExecutionMode.VIRTUAL, 0);
+    }
+
+    public MyTinyHttpServer(int port, int backlog, MyTinyExecutionMode executionMode, int poolSize) {
         try {
-            this.port = port;
-            this.server = HttpServer.create(new InetSocketAddress(port), 0);
-            System.out.printf("Server created on port %d %n", port);
+            this.server = HttpServer.create(new InetSocketAddress(port), backlog);
+            //port 0 means any free port, so we ask the server which one we got
+            this.port = server.getAddress().getPort();
+            this.executor = executionMode.createExecutor(poolSize);
+            server.setExecutor(executor);
+            server.createContext("/", this::handle);
+            System.out.printf("Server created on port %d with execution mode %s and backlog %d%n",
+                    this.port, executionMode, backlog);
         } catch (IOException e) {
             System.out.printf("Failed to create server on port %d%n",port);
             throw new RuntimeException(e);
@@ -26,32 +47,180 @@ public class MyTinyHttpServer {
         System.out.printf("Server created on port %d %n", port);
     }
 
+    public int getPort() {
+        return port;
+    }
+
+    public MyTinyHttpServer withResponseCache(MyTinyResponseCache responseCache) {
+        this.responseCache = responseCache;
+        return this;
+    }
+
+    public MyTinyResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    //the path is a route pattern like "/app/apps/{list}", see MyTinyRouter
     public void bindContext(String path, GetResponse response) {
         System.out.printf("Binding context for path: %s%n", path);
-        server.createContext(path, exchange -> {
-            try {
-                var uri = exchange.getRequestURI();
-                System.out.printf("URI: %s%n", uri);
-                var query = uri.getQuery();
-                System.out.printf("Query: %s%n", query);
-                var responseString = response.handle(query).getBytes(StandardCharsets.UTF_8);
-                exchange.sendResponseHeaders(200, 0);
-                exchange.getResponseBody().write(responseString);
-                exchange.getResponseBody().close();
-            } catch (Exception e) {
-                System.out.printf("server error: %s%n", e.getMessage());
-                exchange.sendResponseHeaders(500, 0);
-                exchange.getResponseBody().write(e.getMessage().getBytes(StandardCharsets.UTF_8));
-                exchange.getResponseBody().close();
-            }
-        });
+        router.add(path, new Route(response, null));
+    }
+
+    //with cacheTtlSeconds above 0 successful responses are kept in the response cache
+    //and the same request is answered from there without calling the handler
+    public void bindContext(String path, GetResponse response, long cacheTtlSeconds) {
+        bindContext(path, response, MyTinyCachePolicy.ttl(cacheTtlSeconds));
+    }
+
+    public void bindContext(String path, GetResponse response, MyTinyCachePolicy cachePolicy) {
+        System.out.printf("Binding context for path: %s%n", path);
+        router.add(path, new Route(response, cachePolicy.ttlSeconds() > 0 ? cachePolicy : null));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            var uri = exchange.getRequestURI();
+            System.out.printf("URI: %s%n", uri);
+            var query = uri.getRawQuery();
+            System.out.printf("Query: %s%n", query);
+            var match = router.match(uri.getRawPath());
+            if (match == null) {
+                send(exchange, MyTinyResponse.ok("Not found: " + uri.getPath())
+                        .withStatus(404)
+                        .contentType("text/plain; charset=utf-8"));
+                return;
+            }
+            var route = match.handler();
+            var request = new MyTinyRequest(uri.getPath(), query, match.pathVariables(), exchange.getRequestHeaders());
+            if (route.cachePolicy() == null) {
+                //the controller runs before we send the headers, so its errors still become a 500
+                send(exchange, route.handler().handle(request));
+            } else {
+                send(exchange, handleCached(route, request));
+            }
+        } catch (Exception e) {
+            System.out.printf("server error: %s%n", e.getMessage());
+            if (exchange.getResponseCode() != -1) {
+                //the headers are already out, all we can do is to abort the response
+                exchange.close();
+                return;
+            }
+            var message = String.valueOf(e.getMessage());
+            send(exchange, MyTinyResponse.ok(message).withStatus(500).contentType("text/plain; charset=utf-8"));
+        }
+    }
+
+    private MyTinyResponse handleCached(Route route, MyTinyRequest request) {
+        var cacheKey = MyTinyResponseCache.key(request.getPath(), request.getQuery());
+        var cached = responseCache.lookup(cacheKey);
+        if (cached != null && cached.freshness() == MyTinyResponseCache.Freshness.FRESH) {
+            return cached.response();
+        }
+        if (cached != null && cached.freshness() == MyTinyResponseCache.Freshness.STALE) {
+            refreshInBackground(route, cacheKey, request);
+            return cached.response();
+        }
+        MyTinyResponse response;
+        try {
+            response = route.handler().handle(request);
+        } catch (RuntimeException e) {
+            if (cached == null) {
+                throw e;
+            }
+            System.out.printf("Sending stale response for %s, the controller failed: %s%n", cacheKey, e.getMessage());
+            responseCache.recordStaleOnError();
+            return cached.response();
+        }
+        if (response.getStatus() == 200) {
+            return responseCache.put(cacheKey, response, route.cachePolicy());
+        }
+        if (response.getStatus() >= 500 && cached != null) {
+            responseCache.recordStaleOnError();
+            return cached.response();
+        }
+        return response;
+    }
+
+    //the request that found the stale response does not wait, the refresh runs on its own virtual thread
+    private void refreshInBackground(Route route, String cacheKey, MyTinyRequest request) {
+        if (!responseCache.startRefresh(cacheKey)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    var response = route.handler().handle(request);
+                    if (response.getStatus() == 200) {
+                        responseCache.put(cacheKey, response, route.cachePolicy());
+                    } else {
+                        System.out.printf("Refreshing %s answered %d, keeping the stale response%n", cacheKey, response.getStatus());
+                    }
+                } catch (RuntimeException e) {
+                    System.out.printf("Refreshing %s failed, keeping the stale response: %s%n", cacheKey, e.getMessage());
+                } finally {
+                    responseCache.endRefresh(cacheKey);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            //the server is stopping
+            responseCache.endRefresh(cacheKey);
+        }
+    }
+
+    private void send(HttpExchange exchange, MyTinyResponse response) throws IOException {
+        var headers = exchange.getResponseHeaders();
+        headers.putAll(response.getHeaders());
+        if (!headers.containsKey("Content-Type")) {
+            headers.set("Content-Type", MyTinyResponse.DEFAULT_CONTENT_TYPE);
+        }
+        var status = response.getStatus();
+        if (status == 200) {
+            var etag = response.getHeader("ETag");
+            if (etag == null && response.isBuffered()) {
+                etag = MyTinyConditionalGet.etag(response.getBytes());
+                headers.set("ETag", etag);
+            }
+            //a streamed body without a version is only known after it was sent, it always gets a 200
+            if (MyTinyConditionalGet.isNotModified(exchange.getRequestHeaders(), etag, response.getHeader("Last-Modified"))) {
+                status = 304;
+            }
+        }
+        try (exchange) {
+            if (status == 204 || status == 304) {
+                //these must not have a body, -1 tells the jdk server there is none
+                exchange.sendResponseHeaders(status, -1);
+                return;
+            }
+            if (response.isBuffered()) {
+                var bytes = response.getBytes();
+                //with a length the client knows where the body ends and can keep the connection
+                exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+                if (bytes.length > 0) {
+                    exchange.getResponseBody().write(bytes);
+                }
+                return;
+            }
+            //0 means chunked, every flush of the body goes out as its own chunk
+            exchange.sendResponseHeaders(status, 0);
+            try (var out = exchange.getResponseBody()) {
+                response.getBody().writeTo(out);
+            }
+        }
     }
 
     public void stop() {
         server.stop(0);
+        refreshExecutor.shutdown();
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    //cachePolicy is null for routes that are not cached
+    private record Route(GetResponse handler, MyTinyCachePolicy cachePolicy) {
     }
 
     public interface GetResponse{
-        String handle(String query);
+        MyTinyResponse handle(MyTinyRequest request);
     }
 }
@@ -0,0 +1,119 @@
+package de.dmitrij.patuk.framework;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+//Turns a controller method into a MyTinyMethodInvoker once at registration time.
+//We try the fastest option first and fall back if the method does not fit:
+//1. LambdaMetafactory - spins a small class per method that calls the method directly
+//2. a spread MethodHandle - works for any arity and static methods
+//3. plain reflection with Method.invoke
+//What we save over Method.invoke are the access checks and the reflective call on every request.
+//We do not get the controller method inlined into the request path: the request handler calls every
+//route through the same MyTinyMethodInvoker call site, and the wrappers below are one class per arity
+//that call the spun class or the spreader handle from a field, so the JIT sees many targets there
+//and keeps real calls. Inlining would need a generated class per route with the method as a constant.
+public class MyTinyInvokerFactory {
+    //the LambdaMetafactory needs a functional interface per number of parameters
+    public interface Invoker0 { Object invoke(Object instance); }
+    public interface Invoker1 { Object invoke(Object instance, Object a0); }
+    public interface Invoker2 { Object invoke(Object instance, Object a0, Object a1); }
+    public interface Invoker3 { Object invoke(Object instance, Object a0, Object a1, Object a2); }
+    public interface Invoker4 { Object invoke(Object instance, Object a0, Object a1, Object a2, Object a3); }
+
+    private static final Class<?>[] INVOKER_TYPES = {
+            Invoker0.class, Invoker1.class, Invoker2.class, Invoker3.class, Invoker4.class
+    };
+
+    public MyTinyMethodInvoker create(Method method) {
+        MethodHandle handle;
+        try {
+            var lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+            handle = lookup.unreflect(method);
+            if (canUseLambda(method)) {
+                try {
+                    var invoker = createLambda(lookup, handle, method.getParameterCount());
+                    System.out.printf("Compiled %s with LambdaMetafactory%n", method.getName());
+                    return invoker;
+                } catch (Throwable e) {
+                    System.out.printf("LambdaMetafactory failed for %s: %s%n", method.getName(), e.getMessage());
+                }
+            }
+            var invoker = createSpreader(handle, method);
+            System.out.printf("Compiled %s with a MethodHandle%n", method.getName());
+            return invoker;
+        } catch (Throwable e) {
+            System.out.printf("Falling back to reflection for %s: %s%n", method.getName(), e.getMessage());
+            return createReflective(method);
+        }
+    }
+
+    private boolean canUseLambda(Method method) {
+        return !Modifier.isStatic(method.getModifiers())
+                && method.getReturnType() != void.class
+                && method.getParameterCount() < INVOKER_TYPES.length;
+    }
+
+    private MyTinyMethodInvoker createLambda(MethodHandles.Lookup lookup, MethodHandle handle, int arity)
+            throws Throwable {
+        var invokerType = INVOKER_TYPES[arity];
+        //instance + arguments, everything erased to Object
+        var erasedType = MethodType.genericMethodType(arity + 1);
+        //the same signature but with the real types, primitives get boxed/unboxed by the generated class
+        var instantiatedType = handle.type().wrap();
+        var callSite = LambdaMetafactory.metafactory(lookup, "invoke",
+                MethodType.methodType(invokerType), erasedType, handle, instantiatedType);
+        var target = callSite.getTarget().invoke();
+        //one wrapper class per arity for all methods, the call to the spun class stays megamorphic
+        return switch (arity) {
+            case 0 -> {
+                var invoker = (Invoker0) target;
+                yield (instance, args) -> invoker.invoke(instance);
+            }
+            case 1 -> {
+                var invoker = (Invoker1) target;
+                yield (instance, args) -> invoker.invoke(instance, args[0]);
+            }
+            case 2 -> {
+                var invoker = (Invoker2) target;
+                yield (instance, args) -> invoker.invoke(instance, args[0], args[1]);
+            }
+            case 3 -> {
+                var invoker = (Invoker3) target;
+                yield (instance, args) -> invoker.invoke(instance, args[0], args[1], args[2]);
+            }
+            case 4 -> {
+                var invoker = (Invoker4) target;
+                yield (instance, args) -> invoker.invoke(instance, args[0], args[1], args[2], args[3]);
+            }
+            default -> throw new IllegalArgumentException("No invoker type for arity " + arity);
+        };
+    }
+
+    private MyTinyMethodInvoker createSpreader(MethodHandle handle, Method method) {
+        if (Modifier.isStatic(method.getModifiers())) {
+            //static methods have no receiver, we accept one and ignore it
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        var spreader = handle
+                .asSpreader(Object[].class, method.getParameterCount())
+                .asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+        return (instance, args) -> spreader.invokeExact(instance, args);
+    }
+
+    private MyTinyMethodInvoker createReflective(Method method) {
+        method.setAccessible(true);
+        return (instance, args) -> {
+            try {
+                return method.invoke(instance, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+    }
+}
@@ -0,0 +1,6 @@
+package de.dmitrij.patuk.framework;
+
+//A compiled call of a controller method, see MyTinyInvokerFactory
+public interface MyTinyMethodInvoker {
+    Object invoke(Object instance, Object[] args) throws Throwable;
+}
@@ -1,8 +1,13 @@
 package de.dmitrij.patuk.framework;
 
+import java.time.Instant;
+
 public class MyTinyModelAndView {
     private final String viewName;
     private final Object model;
+    //set by the controller when it knows the version of the model, the view is not rendered for a 304
+    private String version;
+    private Instant lastModified;
 
     public MyTinyModelAndView(String viewName, Object model) {
         this.viewName = viewName;
@@ -16,4 +21,22 @@ public class MyTinyModelAndView {
     public Object getModel() {
         return model;
     }
+
+    public MyTinyModelAndView withVersion(String version) {
+        this.version = version;
+        return this;
+    }
+
+    public MyTinyModelAndView withLastModified(Instant lastModified) {
+        this.lastModified = lastModified;
+        return this;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
 }
@@ -0,0 +1,119 @@
+package de.dmitrij.patuk.framework;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+//Everything we need to bind one controller method parameter, resolved once at registration.
+//On a request we only look up the value and call the converter.
+public class MyTinyParamBinder {
+    //SINGLE binds the first value, LIST and ARRAY bind every value of a repeated parameter
+    public enum Kind {
+        SINGLE,
+        LIST,
+        ARRAY
+    }
+
+    private final String name;
+    private final Kind kind;
+    //the element type for LIST and ARRAY
+    private final Class<?> componentType;
+    private final Function<String, Object> converter;
+    private final boolean required;
+    //already converted default, or the empty value of the type if there is no default
+    private final Object defaultValue;
+    //true binds a {name} segment of the route instead of a query parameter
+    private final boolean pathVariable;
+
+    public MyTinyParamBinder(String name, Function<String, Object> converter, boolean required, Object defaultValue) {
+        this(name, Kind.SINGLE, null, converter, required, defaultValue);
+    }
+
+    public MyTinyParamBinder(String name, Kind kind, Class<?> componentType, Function<String, Object> converter,
+                             boolean required, Object defaultValue) {
+        this(name, kind, componentType, converter, required, defaultValue, false);
+    }
+
+    private MyTinyParamBinder(String name, Kind kind, Class<?> componentType, Function<String, Object> converter,
+                              boolean required, Object defaultValue, boolean pathVariable) {
+        this.name = name;
+        this.kind = kind;
+        this.componentType = componentType;
+        this.converter = converter;
+        this.required = required;
+        this.defaultValue = defaultValue;
+        this.pathVariable = pathVariable;
+    }
+
+    //a path variable is always there when the route matched
+    public static MyTinyParamBinder pathVariable(String name, Function<String, Object> converter) {
+        return new MyTinyParamBinder(name, Kind.SINGLE, null, converter, true, null, true);
+    }
+
+    public Object bind(MyTinyRequest request) {
+        if (pathVariable) {
+            var value = request.getPathVariable(name);
+            return value == null ? missing() : converter.apply(value);
+        }
+        return bind(request.getQueryParams());
+    }
+
+    public Object bind(MyTinyQueryParams requestParams) {
+        if (kind == Kind.SINGLE) {
+            var value = requestParams.get(name);
+            return value == null ? missing() : converter.apply(value);
+        }
+        var values = requestParams.getAll(name);
+        return values.isEmpty() ? missing() : convertAll(kind, componentType, converter, values);
+    }
+
+    public Object bind(Map<String, String> requestParams) {
+        var value = requestParams.get(name);
+        if (value == null) {
+            return missing();
+        }
+        return kind == Kind.SINGLE ? converter.apply(value) : convertAll(kind, componentType, converter, List.of(value));
+    }
+
+    //builds the list or array for repeated parameters, also used for defaults
+    static Object convertAll(Kind kind, Class<?> componentType, Function<String, Object> converter,
+                             List<String> values) {
+        if (kind == Kind.ARRAY) {
+            var array = Array.newInstance(componentType, values.size());
+            for (int i = 0; i < values.size(); i++) {
+                Array.set(array, i, converter.apply(values.get(i)));
+            }
+            return array;
+        }
+        var list = new ArrayList<>(values.size());
+        for (var value : values) {
+            list.add(converter.apply(value));
+        }
+        return list;
+    }
+
+    private Object missing() {
+        if (required) {
+            throw new RuntimeException("Parameter " + name + " is not inside request parameters");
+        }
+        return defaultValue;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public boolean isRequired() {
+        return required;
+    }
+
+    public boolean isPathVariable() {
+        return pathVariable;
+    }
+}
@@ -0,0 +1,13 @@
+package de.dmitrij.patuk.framework;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+//binds a {name} segment of the route, e.g. @MyTinyGet(route = "apps/{list}")
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface MyTinyPathVariable {
+    String name();
+}
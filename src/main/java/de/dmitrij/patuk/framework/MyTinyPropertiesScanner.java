@@ -21,4 +21,36 @@ public class MyTinyPropertiesScanner {
     public String get(String key) {
         return properties.getProperty(key);
     }
+
+    public String get(String key, String defaultValue) {
+        var value = properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        return value.trim();
+    }
+
+    public int getInt(String key, int defaultValue) {
+        var value = get(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Property " + key + " is not a number: " + value, e);
+        }
+    }
+
+    public long getLong(String key, long defaultValue) {
+        var value = get(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Property " + key + " is not a number: " + value, e);
+        }
+    }
 }
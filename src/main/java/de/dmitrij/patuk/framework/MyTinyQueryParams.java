@@ -0,0 +1,186 @@
+package de.dmitrij.patuk.framework;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+//The parsed query of one request.
+//We walk the raw query once and only remember where each name and value starts and ends.
+//Nothing is copied or decoded until a controller parameter asks for a value.
+//name=value&name2=value2&flag&name=value3
+//|--| |---|  |---| |----| |--| |--| |----|
+public class MyTinyQueryParams {
+    //most requests carry a handful of parameters
+    private static final int DEFAULT_CAPACITY = 8;
+    private static final MyTinyQueryParams EMPTY = new MyTinyQueryParams("", new int[0], 0);
+
+    private final String query;
+    //four ints per parameter: nameStart, nameEnd, valueStart, valueEnd
+    private int[] bounds;
+    private int size;
+
+    private MyTinyQueryParams(String query, int[] bounds, int size) {
+        this.query = query;
+        this.bounds = bounds;
+        this.size = size;
+    }
+
+    //the query must still be encoded, e.g. URI.getRawQuery()
+    public static MyTinyQueryParams parse(String query) {
+        if (query == null || query.isEmpty()) {
+            return EMPTY;
+        }
+        var params = new MyTinyQueryParams(query, new int[DEFAULT_CAPACITY * 4], 0);
+        int length = query.length();
+        int start = 0;
+        while (start <= length) {
+            int end = query.indexOf('&', start);
+            if (end < 0) {
+                end = length;
+            }
+            if (end > start) {
+                //only the first '=' splits, a=b=c has the value b=c and a flag without '=' has an empty value
+                int equals = query.indexOf('=', start);
+                if (equals < 0 || equals > end) {
+                    params.add(start, end, end, end);
+                } else if (equals > start) {
+                    params.add(start, equals, equals + 1, end);
+                }
+            }
+            start = end + 1;
+        }
+        return params;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public String getName(int index) {
+        checkIndex(index);
+        return decode(query, bounds[index * 4], bounds[index * 4 + 1]);
+    }
+
+    public String getValue(int index) {
+        checkIndex(index);
+        return decode(query, bounds[index * 4 + 2], bounds[index * 4 + 3]);
+    }
+
+    public boolean contains(String name) {
+        return indexOf(name, 0) >= 0;
+    }
+
+    //the first value for the name or null
+    public String get(String name) {
+        int index = indexOf(name, 0);
+        return index < 0 ? null : getValue(index);
+    }
+
+    //all values for a repeated name in query order, empty if the name is missing
+    public List<String> getAll(String name) {
+        int index = indexOf(name, 0);
+        if (index < 0) {
+            return List.of();
+        }
+        var values = new ArrayList<String>(2);
+        while (index >= 0) {
+            values.add(getValue(index));
+            index = indexOf(name, index + 1);
+        }
+        return values;
+    }
+
+    private int indexOf(String name, int from) {
+        for (int i = from; i < size; i++) {
+            if (nameEquals(i, name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean nameEquals(int index, String name) {
+        int start = bounds[index * 4];
+        int end = bounds[index * 4 + 1];
+        if (needsDecoding(query, start, end)) {
+            return decode(query, start, end).equals(name);
+        }
+        //the common case, compare in place without creating a substring
+        return end - start == name.length() && query.regionMatches(start, name, 0, name.length());
+    }
+
+    private void add(int nameStart, int nameEnd, int valueStart, int valueEnd) {
+        if ((size + 1) * 4 > bounds.length) {
+            bounds = Arrays.copyOf(bounds, bounds.length * 2);
+        }
+        int offset = size * 4;
+        bounds[offset] = nameStart;
+        bounds[offset + 1] = nameEnd;
+        bounds[offset + 2] = valueStart;
+        bounds[offset + 3] = valueEnd;
+        size++;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for " + size + " parameters");
+        }
+    }
+
+    private static boolean needsDecoding(String s, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (c == '%' || c == '+') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //application/x-www-form-urlencoded decoding: '+' is a space and %XX sequences are UTF-8 bytes
+    //a broken escape like %zz is kept as it is
+    static String decode(String s, int start, int end) {
+        if (!needsDecoding(s, start, end)) {
+            return s.substring(start, end);
+        }
+        var sb = new StringBuilder(end - start);
+        byte[] bytes = null;
+        int i = start;
+        while (i < end) {
+            char c = s.charAt(i);
+            if (c == '+') {
+                sb.append(' ');
+                i++;
+            } else if (c == '%') {
+                if (bytes == null) {
+                    bytes = new byte[(end - i) / 3];
+                }
+                int count = 0;
+                while (i + 2 < end && s.charAt(i) == '%') {
+                    int high = Character.digit(s.charAt(i + 1), 16);
+                    int low = Character.digit(s.charAt(i + 2), 16);
+                    if (high < 0 || low < 0) {
+                        break;
+                    }
+                    bytes[count++] = (byte) ((high << 4) + low);
+                    i += 3;
+                }
+                if (count == 0) {
+                    sb.append(c);
+                    i++;
+                } else {
+                    sb.append(new String(bytes, 0, count, StandardCharsets.UTF_8));
+                }
+            } else {
+                sb.append(c);
+                i++;
+            }
+        }
+        return sb.toString();
+    }
+}
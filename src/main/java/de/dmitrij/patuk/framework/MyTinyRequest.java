@@ -0,0 +1,70 @@
+package de.dmitrij.patuk.framework;
+
+import com.sun.net.httpserver.Headers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+//What a controller gets to know about a request: the path, the query, the path variables of its route
+//and the headers. The query is only parsed when someone asks for it.
+public class MyTinyRequest {
+    private final String path;
+    private final String query;
+    private final Map<String, String> pathVariables;
+    private final Map<String, List<String>> headers;
+    private MyTinyQueryParams queryParams;
+
+    public MyTinyRequest(String path, String query, Map<String, String> pathVariables, Map<String, List<String>> headers) {
+        this.path = path;
+        this.query = query;
+        this.pathVariables = pathVariables;
+        //header names are case-insensitive, the headers of the jdk server already are
+        if (headers instanceof Headers) {
+            this.headers = headers;
+        } else {
+            var caseInsensitive = new TreeMap<String, List<String>>(String.CASE_INSENSITIVE_ORDER);
+            caseInsensitive.putAll(headers);
+            this.headers = caseInsensitive;
+        }
+    }
+
+    //a request with only a query, e.g. for calling a handler directly
+    public static MyTinyRequest of(String query) {
+        return new MyTinyRequest("/", query, Map.of(), Map.of());
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    //the raw query without the '?', null if there is none
+    public String getQuery() {
+        return query;
+    }
+
+    public MyTinyQueryParams getQueryParams() {
+        if (queryParams == null) {
+            queryParams = MyTinyQueryParams.parse(query);
+        }
+        return queryParams;
+    }
+
+    public String getPathVariable(String name) {
+        return pathVariables.get(name);
+    }
+
+    public Map<String, String> getPathVariables() {
+        return pathVariables;
+    }
+
+    //the first value of the header, null if the request does not have it
+    public String getHeader(String name) {
+        var values = headers.get(name);
+        return values == null || values.isEmpty() ? null : values.getFirst();
+    }
+
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+}
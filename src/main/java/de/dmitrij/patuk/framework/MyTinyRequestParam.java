@@ -8,5 +8,14 @@ import java.lang.annotation.Target;
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.PARAMETER)
 public @interface MyTinyRequestParam {
+    //annotations can not have null defaults, so we use a value nobody will send as a query parameter
+    String NO_DEFAULT = "\n\t\tno default\t\t\n";
+
     String name() default "";
+
+    //a missing required parameter fails the request
+    boolean required() default true;
+
+    //used when the parameter is missing, makes the parameter optional
+    String defaultValue() default NO_DEFAULT;
 }
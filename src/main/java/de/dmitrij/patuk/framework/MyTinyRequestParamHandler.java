@@ -1,63 +1,113 @@
 package de.dmitrij.patuk.framework;
 
+import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 public class MyTinyRequestParamHandler {
+    //the converter for each supported type, we pick one when a route is registered
+    private static final Map<Class<?>, Function<String, Object>> CONVERTERS = Map.ofEntries(
+            Map.entry(String.class, value -> value),
+            Map.entry(int.class, Integer::valueOf),
+            Map.entry(Integer.class, Integer::valueOf),
+            Map.entry(boolean.class, Boolean::valueOf),
+            Map.entry(Boolean.class, Boolean::valueOf),
+            Map.entry(long.class, Long::valueOf),
+            Map.entry(Long.class, Long::valueOf),
+            Map.entry(double.class, Double::valueOf),
+            Map.entry(Double.class, Double::valueOf),
+            Map.entry(float.class, Float::valueOf),
+            Map.entry(Float.class, Float::valueOf));
 
+    //a missing optional primitive can not be null
+    private static final Map<Class<?>, Object> PRIMITIVE_DEFAULTS = Map.of(
+            int.class, 0,
+            boolean.class, false,
+            long.class, 0L,
+            double.class, 0d,
+            float.class, 0f);
+
+    //kept for callers that want a simple map, the last value of a repeated parameter wins
     public Map<String, String> getRequestParams(String query) {
+        var params = MyTinyQueryParams.parse(query);
         var parsedParams = new HashMap<String, String>();
-        if (query == null) {
-            return parsedParams;
-        }
-        if (query.isEmpty()) {
-            return parsedParams;
-        }
-        var queryParams = query.split("&");
-        for (var param : queryParams) {
-            if (param.isEmpty()) {
-                continue;
-            }
-            var paramParts = param.split("=");
-            if (paramParts.length != 2) {
-                continue;
-            }
-            parsedParams.put(paramParts[0], paramParts[1]);
+        for (int i = 0; i < params.size(); i++) {
+            parsedParams.put(params.getName(i), params.getValue(i));
         }
         return parsedParams;
     }
 
     public <T> T handle(Parameter methodParameter, Map<String, String> requestParams) {
-        if (!methodParameter.isAnnotationPresent(MyTinyRequestParam.class)) {
+        return (T) compile(methodParameter).bind(requestParams);
+    }
+
+    public boolean canHandle(Parameter parameter) {
+        return parameter.isAnnotationPresent(MyTinyRequestParam.class) || parameter.isAnnotationPresent(MyTinyPathVariable.class);
+    }
+
+    //one binder per method parameter, in parameter order
+    public List<MyTinyParamBinder> compile(Method method) {
+        var binders = new ArrayList<MyTinyParamBinder>();
+        for (var parameter : method.getParameters()) {
+            binders.add(compile(parameter));
+        }
+        return binders;
+    }
+
+    public MyTinyParamBinder compile(Parameter methodParameter) {
+        if (!canHandle(methodParameter)) {
             throw new RuntimeException(
-                    "Parameter " + methodParameter.getName() + " is not annotated with @MyTinyRequestParam");
+                    "Parameter " + methodParameter.getName() + " is not annotated with @MyTinyRequestParam or @MyTinyPathVariable");
+        }
+        if (methodParameter.isAnnotationPresent(MyTinyPathVariable.class)) {
+            var name = methodParameter.getAnnotation(MyTinyPathVariable.class).name();
+            var converter = CONVERTERS.get(methodParameter.getType());
+            if (converter == null) {
+                throw new RuntimeException("Type " + methodParameter.getType() + " is not supported for path variable " + name);
+            }
+            return MyTinyParamBinder.pathVariable(name, converter);
         }
         var annotation = methodParameter.getAnnotation(MyTinyRequestParam.class);
         var name = annotation.name();
         var type = methodParameter.getType();
-        if (!requestParams.containsKey(name)) {
-            throw new RuntimeException("Parameter " + name + " is not inside request parameters");
-        }
-        var value = requestParams.get(name);
-
-        if (type.equals(String.class)) {
-            return (T) value;
-        } else if (type.equals(int.class) || type.equals(Integer.class)) {
-            return (T) Integer.valueOf(value);
-        } else if (type.equals(boolean.class) || type.equals(Boolean.class)) {
-            return (T) Boolean.valueOf(value);
-        } else if (type.equals(long.class) || type.equals(Long.class)) {
-            return (T) Long.valueOf(value);
-        } else if (type.equals(double.class) || type.equals(Double.class)) {
-            return (T) Double.valueOf(value);
-        } else if (type.equals(float.class) || type.equals(Float.class)) {
-            return (T) Float.valueOf(value);
-        }
-        throw new RuntimeException("Type " + type + " is not supported");
+        var kind = MyTinyParamBinder.Kind.SINGLE;
+        var componentType = type;
+        if (type.isArray()) {
+            kind = MyTinyParamBinder.Kind.ARRAY;
+            componentType = type.getComponentType();
+        } else if (type == List.class || type == Collection.class) {
+            kind = MyTinyParamBinder.Kind.LIST;
+            componentType = listElementType(methodParameter);
+        }
+        var converter = CONVERTERS.get(componentType);
+        if (converter == null) {
+            throw new RuntimeException("Type " + type + " is not supported");
+        }
+
+        var hasDefault = !MyTinyRequestParam.NO_DEFAULT.equals(annotation.defaultValue());
+        var required = annotation.required() && !hasDefault;
+        Object defaultValue;
+        if (kind == MyTinyParamBinder.Kind.SINGLE) {
+            defaultValue = hasDefault ? converter.apply(annotation.defaultValue()) : PRIMITIVE_DEFAULTS.get(type);
+        } else {
+            var defaults = hasDefault ? List.of(annotation.defaultValue()) : List.<String>of();
+            defaultValue = MyTinyParamBinder.convertAll(kind, componentType, converter, defaults);
+        }
+        return new MyTinyParamBinder(name, kind, componentType, converter, required, defaultValue);
     }
 
-    public boolean canHandle(Parameter parameter) {
-        return parameter.isAnnotationPresent(MyTinyRequestParam.class);
+    //List<Integer> binds integers, a raw List binds strings
+    private Class<?> listElementType(Parameter parameter) {
+        if (parameter.getParameterizedType() instanceof ParameterizedType parameterizedType
+                && parameterizedType.getActualTypeArguments()[0] instanceof Class<?> elementType) {
+            return elementType;
+        }
+        return String.class;
     }
 }
@@ -0,0 +1,150 @@
+package de.dmitrij.patuk.framework;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+//What a controller wants to send back: status, headers and a body.
+//A buffered body has a known size, so the server sends a Content-Length and the connection can be reused.
+//A streamed body is written while it is produced and sent chunked.
+public class MyTinyResponse {
+    public static final String DEFAULT_CONTENT_TYPE = "text/html; charset=utf-8";
+    private static final byte[] EMPTY = new byte[0];
+
+    private int status = 200;
+    private final Map<String, List<String>> headers = new LinkedHashMap<>();
+    private byte[] bytes = EMPTY;
+    private MyTinyResponseBody body;
+
+    public static MyTinyResponse ok(String text) {
+        return new MyTinyResponse().body(text);
+    }
+
+    public static MyTinyResponse ok(byte[] bytes) {
+        return new MyTinyResponse().body(bytes);
+    }
+
+    public static MyTinyResponse stream(MyTinyResponseBody body) {
+        return new MyTinyResponse().body(body);
+    }
+
+    public static MyTinyResponse status(int status) {
+        return new MyTinyResponse().withStatus(status);
+    }
+
+    public MyTinyResponse withStatus(int status) {
+        if (status < 100 || status > 599) {
+            throw new IllegalArgumentException("Invalid http status " + status);
+        }
+        this.status = status;
+        return this;
+    }
+
+    //replaces all values of the header
+    public MyTinyResponse header(String name, String value) {
+        var values = new ArrayList<String>(1);
+        values.add(value);
+        headers.put(name, values);
+        return this;
+    }
+
+    public MyTinyResponse addHeader(String name, String value) {
+        headers.computeIfAbsent(name, key -> new ArrayList<>(1)).add(value);
+        return this;
+    }
+
+    public MyTinyResponse contentType(String contentType) {
+        return header("Content-Type", contentType);
+    }
+
+    //a version known before the body is produced, the server can answer a matching If-None-Match
+    //with a 304 without writing the body at all, see MyTinyConditionalGet
+    public MyTinyResponse etag(String version) {
+        return header("ETag", MyTinyConditionalGet.quote(version));
+    }
+
+    public MyTinyResponse lastModified(Instant lastModified) {
+        return header("Last-Modified", MyTinyConditionalGet.httpDate(lastModified));
+    }
+
+    public MyTinyResponse body(String text) {
+        return body(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public MyTinyResponse body(byte[] bytes) {
+        this.bytes = bytes;
+        this.body = null;
+        return this;
+    }
+
+    public MyTinyResponse body(MyTinyResponseBody body) {
+        this.body = body;
+        this.bytes = null;
+        return this;
+    }
+
+    //this response if it is buffered, else a buffered one with the streamed body written into memory
+    public MyTinyResponse buffered() {
+        if (isBuffered()) {
+            return this;
+        }
+        var out = new ByteArrayOutputStream();
+        try {
+            body.writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return copyWith(out.toByteArray());
+    }
+
+    //a buffered response with the same status and headers which shares the body bytes,
+    //so the headers of one can change without touching the other
+    public MyTinyResponse copy() {
+        return copyWith(buffered().bytes);
+    }
+
+    private MyTinyResponse copyWith(byte[] bytes) {
+        var copy = ok(bytes).withStatus(status);
+        for (var header : headers.entrySet()) {
+            copy.headers.put(header.getKey(), new ArrayList<>(header.getValue()));
+        }
+        return copy;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    public String getHeader(String name) {
+        for (var entry : headers.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(name) && !entry.getValue().isEmpty()) {
+                return entry.getValue().get(0);
+            }
+        }
+        return null;
+    }
+
+    public boolean isBuffered() {
+        return body == null;
+    }
+
+    //null for streamed responses
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    //null for buffered responses
+    public MyTinyResponseBody getBody() {
+        return body;
+    }
+}
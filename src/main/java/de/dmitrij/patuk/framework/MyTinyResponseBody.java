@@ -0,0 +1,16 @@
+package de.dmitrij.patuk.framework;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+//Writes the body of a response, the server calls it after the headers are sent
+//so rendered views can stream straight to the socket
+public interface MyTinyResponseBody {
+    void writeTo(OutputStream out) throws IOException;
+
+    static MyTinyResponseBody of(String text) {
+        var bytes = text.getBytes(StandardCharsets.UTF_8);
+        return out -> out.write(bytes);
+    }
+}
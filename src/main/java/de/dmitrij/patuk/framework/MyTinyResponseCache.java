@@ -0,0 +1,240 @@
+package de.dmitrij.patuk.framework;
+
+import de.dmitrij.patuk.template.MyTinyLruCache;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+//Keeps whole responses of @MyTinyCacheable routes, so the server can answer them without calling the controller.
+//The key is the path with the query params decoded, sorted and encoded again, so the same question asked
+//in a different way finds the same response:
+//"/app/apps?sort=name&page=%32" and "/app/apps?page=2&sort=name" -> "/app/apps?page=2&sort=name"
+//The cache is bounded by the bytes of the responses, not by their number, a few big pages and many small
+//ones take the same memory. When it is full we evict the least recently used response, see MyTinyLruCache.
+//An entry can outlive its ttl, see MyTinyCachePolicy: while it is stale the server still sends it
+//and refreshes it in the background, only one refresh per key runs at a time.
+public class MyTinyResponseCache {
+    public static final long DEFAULT_MAX_BYTES = 16 * 1024 * 1024;
+    //what we count for an entry on top of its body: key, headers and the objects around them
+    private static final int ENTRY_OVERHEAD = 256;
+
+    private final MyTinyLruCache<String, Entry> responses;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder staleOnError = new LongAdder();
+    //keys a background refresh is running for
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    public MyTinyResponseCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    public MyTinyResponseCache(long maxBytes) {
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("Response cache size must be at least 1 byte but was " + maxBytes);
+        }
+        this.responses = new MyTinyLruCache<>(maxBytes, entry -> entry.size);
+    }
+
+    //the path is already decoded, the query is the raw query of the request
+    public static String key(String path, String query) {
+        var params = MyTinyQueryParams.parse(query);
+        if (params.isEmpty()) {
+            return path;
+        }
+        var pairs = new ArrayList<String[]>(params.size());
+        for (int i = 0; i < params.size(); i++) {
+            pairs.add(new String[]{params.getName(i), params.getValue(i)});
+        }
+        //the order of a repeated param can matter to the controller, so equal names keep their order
+        pairs.sort((a, b) -> a[0].compareTo(b[0]));
+        var sb = new StringBuilder(path.length() + query.length() + 8).append(path).append('?');
+        for (int i = 0; i < pairs.size(); i++) {
+            if (i > 0) {
+                sb.append('&');
+            }
+            sb.append(URLEncoder.encode(pairs.get(i)[0], StandardCharsets.UTF_8))
+                    .append('=')
+                    .append(URLEncoder.encode(pairs.get(i)[1], StandardCharsets.UTF_8));
+        }
+        return sb.toString();
+    }
+
+    //the cached response or null if there is none or it ran out
+    public MyTinyResponse get(String key) {
+        var lookup = lookup(key, false);
+        return lookup != null && lookup.freshness() == Freshness.FRESH ? lookup.response() : null;
+    }
+
+    //the cached response and how old it is, null if there is none or it is past all stale windows
+    public Lookup lookup(String key) {
+        return lookup(key, true);
+    }
+
+    private Lookup lookup(String key, boolean acceptStale) {
+        var entry = responses.get(key);
+        if (entry != null) {
+            long now = System.nanoTime();
+            if (now - entry.expiresAt < 0) {
+                hits.increment();
+                return new Lookup(entry.response, Freshness.FRESH);
+            }
+            if (acceptStale && now - entry.staleUntil < 0) {
+                staleHits.increment();
+                return new Lookup(entry.response, Freshness.STALE);
+            }
+            if (now - entry.retainedUntil < 0) {
+                //only good enough when the controller fails, for everything else it is a miss
+                misses.increment();
+                return acceptStale ? new Lookup(entry.response, Freshness.STALE_IF_ERROR) : null;
+            }
+            if (responses.remove(key, entry)) {
+                expirations.increment();
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    public MyTinyResponse put(String key, MyTinyResponse response, long ttlSeconds) {
+        return put(key, response, MyTinyCachePolicy.ttl(ttlSeconds));
+    }
+
+    //keeps the response as long as the policy says and returns what the server should send instead of it,
+    //a streamed body is written into memory here, so the returned response is always buffered,
+    //we keep a copy since the controller may hand out the same response object again and change it
+    public MyTinyResponse put(String key, MyTinyResponse response, MyTinyCachePolicy policy) {
+        var buffered = response.copy();
+        //the tag is computed once here and every hit can be answered with a 304 by comparing it
+        if (buffered.getHeader("ETag") == null) {
+            buffered.etag(MyTinyConditionalGet.etag(buffered.getBytes()));
+        }
+        if (buffered.getHeader("Last-Modified") == null) {
+            buffered.lastModified(Instant.now());
+        }
+        var size = buffered.getBytes().length + key.length() * 2L + ENTRY_OVERHEAD;
+        if (size > responses.getMaxWeight()) {
+            //it would push everything else out and still not fit
+            return buffered;
+        }
+        var expiresAt = System.nanoTime() + policy.ttlSeconds() * 1_000_000_000L;
+        var entry = new Entry(buffered, size, expiresAt,
+                expiresAt + policy.staleWhileRevalidateSeconds() * 1_000_000_000L,
+                expiresAt + policy.retainSeconds() * 1_000_000_000L);
+        evictions.add(responses.put(key, entry).size());
+        return buffered;
+    }
+
+    //true if the caller should refresh the key, false if another refresh for it is already running
+    public boolean startRefresh(String key) {
+        if (refreshing.add(key)) {
+            refreshes.increment();
+            return true;
+        }
+        return false;
+    }
+
+    public void endRefresh(String key) {
+        refreshing.remove(key);
+    }
+
+    //the server sent a stale response because the controller failed
+    public void recordStaleOnError() {
+        staleOnError.increment();
+    }
+
+    //drops every cached query of the path
+    public void evict(String path) {
+        responses.removeIf(key -> key.equals(path) || (key.startsWith(path) && key.charAt(path.length()) == '?'));
+    }
+
+    public void evictAll() {
+        responses.clear();
+    }
+
+    public int size() {
+        return responses.size();
+    }
+
+    public long getBytes() {
+        return responses.getWeight();
+    }
+
+    public long getMaxBytes() {
+        return responses.getMaxWeight();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long getExpirations() {
+        return expirations.sum();
+    }
+
+    //stale responses sent while they were refreshed
+    public long getStaleHits() {
+        return staleHits.sum();
+    }
+
+    public long getRefreshes() {
+        return refreshes.sum();
+    }
+
+    public long getStaleOnError() {
+        return staleOnError.sum();
+    }
+
+    //fresh and stale hits of all lookups, 0 before the first one
+    public double getHitRate() {
+        long hitCount = hits.sum() + staleHits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    public enum Freshness {
+        FRESH,
+        //past its ttl, sent while it is refreshed
+        STALE,
+        //past its stale window, only sent when the controller fails
+        STALE_IF_ERROR
+    }
+
+    public record Lookup(MyTinyResponse response, Freshness freshness) {
+    }
+
+    private static class Entry {
+        private final MyTinyResponse response;
+        private final long size;
+        //System.nanoTime when it stops being fresh, when it stops being sent while stale
+        //and when it is not even good enough for a failing controller anymore
+        private final long expiresAt;
+        private final long staleUntil;
+        private final long retainedUntil;
+
+        private Entry(MyTinyResponse response, long size, long expiresAt, long staleUntil, long retainedUntil) {
+            this.response = response;
+            this.size = size;
+            this.expiresAt = expiresAt;
+            this.staleUntil = staleUntil;
+            this.retainedUntil = retainedUntil;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package de.dmitrij.patuk.framework;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+//Controllers without this annotation are singletons
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface MyTinyScope {
+    MyTinyScopeType value() default MyTinyScopeType.SINGLETON;
+}
@@ -0,0 +1,8 @@
+package de.dmitrij.patuk.framework;
+
+//SINGLETON - one instance is created when the controller is registered and shared by all requests
+//PROTOTYPE - a new instance every time the controller is looked up, which is once per http request
+public enum MyTinyScopeType {
+    SINGLETON,
+    PROTOTYPE
+}
@@ -0,0 +1,72 @@
+package de.dmitrij.patuk.framework;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+//Runs identical requests that overlap in time only once.
+//The first request for a key runs the controller, the ones that come while it runs wait for its response:
+//  request 1 /app/apps?page=2  --- controller + render --->  response
+//  request 2 /app/apps?page=2       waits  ------------->  same bytes
+//  request 3 /app/apps?page=2          waits  ---------->  same bytes
+//A request that comes after the response was sent runs the controller again, keeping responses
+//is the job of the response cache. A failure is thrown to every waiting request.
+public class MyTinySingleFlight {
+    private final Map<String, CompletableFuture<MyTinyResponse>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder merged = new LongAdder();
+
+    public MyTinyResponse run(String key, Supplier<MyTinyResponse> call) {
+        var own = new CompletableFuture<MyTinyResponse>();
+        var running = inFlight.putIfAbsent(key, own);
+        if (running != null) {
+            merged.increment();
+            //every request gets its own headers, the server and the response cache may add to them
+            return join(running).copy();
+        }
+        executions.increment();
+        try {
+            //a streamed body can only be written once, so all requests get the bytes
+            var response = call.get().buffered();
+            own.complete(response);
+            return response.copy();
+        } catch (Throwable t) {
+            //errors too, a waiting request must never be left with a future nobody completes
+            own.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    //requests that ran the call
+    public long getExecutions() {
+        return executions.sum();
+    }
+
+    //requests that got the response of another request
+    public long getMerged() {
+        return merged.sum();
+    }
+
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    private static MyTinyResponse join(CompletableFuture<MyTinyResponse> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
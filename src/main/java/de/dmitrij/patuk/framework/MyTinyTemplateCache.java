@@ -0,0 +1,128 @@
+package de.dmitrij.patuk.framework;
+
+import de.dmitrij.patuk.template.MyTinyLruCache;
+import de.dmitrij.patuk.template.nodes.MyTinyTemplate;
+
+import java.util.ArrayDeque;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+//Holds the parsed templates so that we only read, tokenize and parse a view once.
+//The key is the view name e.g. "/app/apps"
+//A miss parses in computeIfAbsent of the loading map, which only locks the bin of one view,
+//so concurrent misses for the same view wait for the first parse to finish instead of parsing it again.
+//When we have more views than maxSize we evict the least recently used one, see MyTinyLruCache.
+//Views that include or extend other views are remembered as their dependents:
+//"/app/layout" -> ["/app/index", "/app/iterations"]
+//so invalidating the layout drops every view that was linked with it.
+public class MyTinyTemplateCache {
+    public static final int DEFAULT_MAX_SIZE = 128;
+
+    private final MyTinyLruCache<String, MyTinyTemplate> templates;
+    //views that are being parsed right now, only used to let concurrent misses wait for one parse
+    private final Map<String, MyTinyTemplate> loading = new ConcurrentHashMap<>();
+    //included view -> the views that were linked with it
+    private final Map<String, Set<String>> dependents = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public MyTinyTemplateCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public MyTinyTemplateCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Template cache size must be at least 1 but was " + maxSize);
+        }
+        this.templates = new MyTinyLruCache<>(maxSize, template -> 1);
+    }
+
+    public MyTinyTemplate get(String viewName, Function<String, MyTinyTemplate> loader) {
+        var template = templates.get(viewName);
+        if (template != null) {
+            hits.increment();
+            return template;
+        }
+
+        var loaded = new boolean[1];
+        template = loading.computeIfAbsent(viewName, name -> {
+            //someone else may have finished parsing it just before we got here
+            var cached = templates.get(name);
+            if (cached != null) {
+                return cached;
+            }
+            loaded[0] = true;
+            var parsed = loader.apply(name);
+            for (var dependency : parsed.getDependencies()) {
+                dependents.computeIfAbsent(dependency, k -> ConcurrentHashMap.newKeySet()).add(name);
+            }
+            for (var evicted : templates.put(name, parsed)) {
+                evictions.increment();
+                System.out.printf("Evicted view %s from template cache%n", evicted);
+            }
+            return parsed;
+        });
+        loading.remove(viewName, template);
+        if (loaded[0]) {
+            misses.increment();
+        } else {
+            //someone else parsed the view while we were waiting
+            hits.increment();
+        }
+        return template;
+    }
+
+    //returns the view itself and every view that included it, directly or through other views
+    public Set<String> invalidate(String viewName) {
+        var invalidated = new LinkedHashSet<String>();
+        var pending = new ArrayDeque<String>();
+        pending.add(viewName);
+        while (!pending.isEmpty()) {
+            var name = pending.poll();
+            if (!invalidated.add(name)) {
+                continue;
+            }
+            //compute waits for a parse of the view that is still running, so it can not put an old tree back
+            loading.compute(name, (k, parsing) -> {
+                templates.remove(k);
+                return null;
+            });
+            //the dependents register again when they are loaded the next time
+            var users = dependents.remove(name);
+            if (users != null) {
+                pending.addAll(users);
+            }
+        }
+        return invalidated;
+    }
+
+    public void invalidateAll() {
+        templates.clear();
+        dependents.clear();
+    }
+
+    public int size() {
+        return templates.size();
+    }
+
+    public int getMaxSize() {
+        return (int) templates.getMaxWeight();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+}
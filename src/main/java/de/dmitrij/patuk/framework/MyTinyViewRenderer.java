@@ -1,27 +1,156 @@
 package de.dmitrij.patuk.framework;
 
 import de.dmitrij.patuk.template.MyTinyContext;
+import de.dmitrij.patuk.template.MyTinyFragmentCache;
+import de.dmitrij.patuk.template.MyTinyParallelForeach;
 import de.dmitrij.patuk.template.MyTinyParser;
+import de.dmitrij.patuk.template.MyTinyRenderSink;
+import de.dmitrij.patuk.template.MyTinySlotResolver;
+import de.dmitrij.patuk.template.MyTinyStringSink;
+import de.dmitrij.patuk.template.MyTinyTemplateCompiler;
+import de.dmitrij.patuk.template.MyTinyTemplateLinker;
+import de.dmitrij.patuk.template.MyTinyTemplateOptimizer;
 import de.dmitrij.patuk.template.MyTinyTokenStream;
 import de.dmitrij.patuk.template.MyTinyTokenizer;
+import de.dmitrij.patuk.template.MyTinyUtf8Sink;
+import de.dmitrij.patuk.template.nodes.MyTinyTemplate;
+
+import java.io.OutputStream;
+import java.util.function.Predicate;
 
 public class MyTinyViewRenderer {
+    //a streamed page that fits into the buffer goes to the socket in one write,
+    //bigger pages are sent in pieces of this size
+    static final int MAX_STREAM_BUFFER_SIZE = 64 * 1024;
+    static final int MIN_STREAM_BUFFER_SIZE = 1024;
+
     private final MyTinyViewProvider provider;
     private final MyTinyParser parser;
     private final MyTinyTokenizer tokenizer;
+    private final MyTinyTemplateCache templateCache;
+    private final MyTinySlotResolver slotResolver = new MyTinySlotResolver();
+    private final MyTinyTemplateLinker linker = new MyTinyTemplateLinker(this::parse);
+    private final MyTinyTemplateOptimizer optimizer = new MyTinyTemplateOptimizer(false);
+    private final MyTinyTemplateOptimizer minifier = new MyTinyTemplateOptimizer(true);
+    //which views get their whitespace collapsed, by default all are sent as they were written
+    private Predicate<String> minifiedViews = viewName -> false;
+    private MyTinyFragmentCache fragmentCache = new MyTinyFragmentCache();
+    private boolean compileTemplates;
+    //null renders every foreach on the request thread
+    private MyTinyParallelForeach parallelForeach;
 
     public MyTinyViewRenderer(MyTinyViewProvider provider, MyTinyParser parser, MyTinyTokenizer tokenizer) {
+        this(provider, parser, tokenizer, new MyTinyTemplateCache());
+    }
+
+    public MyTinyViewRenderer(MyTinyViewProvider provider, MyTinyParser parser, MyTinyTokenizer tokenizer,
+                              MyTinyTemplateCache templateCache) {
         this.provider = provider;
         this.parser = parser;
         this.tokenizer = tokenizer;
+        this.templateCache = templateCache;
+    }
+
+    //compiled views run as prepared steps instead of walking the nodes,
+    //views the compiler can not handle stay on the interpreter
+    public MyTinyViewRenderer withCompiledTemplates(boolean enabled) {
+        this.compileTemplates = enabled;
+        return this;
+    }
+
+    //big loops render their items on several threads, see MyTinyParallelForeach
+    public MyTinyViewRenderer withParallelForeach(MyTinyParallelForeach parallelForeach) {
+        this.parallelForeach = parallelForeach;
+        return this;
+    }
+
+    public MyTinyViewRenderer withMinifiedViews(Predicate<String> minifiedViews) {
+        this.minifiedViews = minifiedViews;
+        return this;
+    }
+
+    public MyTinyViewRenderer withFragmentCache(MyTinyFragmentCache fragmentCache) {
+        this.fragmentCache = fragmentCache;
+        return this;
     }
 
     public String render(String viewName, Object model) {
+        var template = templateCache.get(viewName, this::load);
+        //sized from the last renders of this view, so a big page does not grow its buffer again and again
+        var estimate = template.getCharEstimate();
+        var sink = new MyTinyStringSink(Math.max(estimate.get(), 256));
+        renderTemplate(template, model, sink);
+        estimate.record(sink.length());
+        return sink.toString();
+    }
+
+    public void render(String viewName, Object model, OutputStream out) {
+        renderTo(templateCache.get(viewName, this::load), model, out);
+    }
+
+    //the view is loaded right away so a missing view fails before the response headers are sent,
+    //the rendering itself happens when the server writes the body
+    public MyTinyResponseBody renderBody(String viewName, Object model) {
+        var template = templateCache.get(viewName, this::load);
+        return out -> renderTo(template, model, out);
+    }
+
+    //drops the parsed view and all views that include it, the next render reads and parses them again
+    public void invalidate(String viewName) {
+        for (var invalidated : templateCache.invalidate(viewName)) {
+            //the blocks of the new view are numbered again, old fragments would end up in the wrong block
+            fragmentCache.evict(invalidated);
+        }
+    }
+
+    public MyTinyTemplateCache getTemplateCache() {
+        return templateCache;
+    }
+
+    public MyTinyFragmentCache getFragmentCache() {
+        return fragmentCache;
+    }
+
+    private void renderTo(MyTinyTemplate template, Object model, OutputStream out) {
+        var estimate = template.getByteEstimate();
+        var bufferSize = estimate.get() == 0 ? MyTinyUtf8Sink.DEFAULT_BUFFER_SIZE : estimate.get();
+        var sink = new MyTinyUtf8Sink(out, Math.clamp(bufferSize, MIN_STREAM_BUFFER_SIZE, MAX_STREAM_BUFFER_SIZE));
+        renderTemplate(template, model, sink);
+        sink.flush();
+        estimate.record(sink.getWritten());
+    }
+
+    private void renderTemplate(MyTinyTemplate template, Object model, MyTinyRenderSink sink) {
+        var compiled = template.getCompiled();
+        if (compiled != null) {
+            compiled.render(model, sink);
+        } else {
+            template.render(new MyTinyContext(model, template.getFrameSize()).withParallelForeach(parallelForeach), sink);
+        }
+    }
+
+    private MyTinyTemplate parse(String viewName) {
+        System.out.printf("Parsing view %s%n", viewName);
         var templateString = provider.provideTinyView(viewName);
-        var tokens = tokenizer.tokenize(templateString);
-        var template = parser.parseTemplate(new MyTinyTokenStream(tokens));
-        System.out.println( tokenizer.tokensToString(tokens));
-        System.out.println(template.prettyPrint(""));
-        return template.render(new MyTinyContext(model));
+        var tokens = tokenizer.scan(templateString);
+        return parser.parseTemplate(new MyTinyTokenStream(tokens));
+    }
+
+    private MyTinyTemplate load(String viewName) {
+        //includes and layouts become part of the view, so they are optimized and compiled together with it
+        var linked = linker.link(viewName, parse(viewName));
+        var template = (minifiedViews.test(viewName) ? minifier : optimizer).optimize(linked);
+        template.setDependencies(linked.getDependencies());
+        //variables get their frame slots once per view, not on every render
+        slotResolver.resolve(template);
+        fragmentCache.bind(viewName, template);
+        if (compileTemplates) {
+            try {
+                template.setCompiled(new MyTinyTemplateCompiler(parallelForeach).compile(template));
+            } catch (RuntimeException e) {
+                System.out.printf("Interpreting view %s, it could not be compiled: %s%n", viewName, e.getMessage());
+            }
+        }
+        return template;
     }
 }
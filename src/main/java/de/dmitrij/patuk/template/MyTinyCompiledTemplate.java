@@ -0,0 +1,40 @@
+package de.dmitrij.patuk.template;
+
+//A template that the MyTinyTemplateCompiler turned into a tree of small steps.
+//Instead of asking every node what it is while rendering, each step already knows
+//its text, its frame slot and its accessors, and just runs.
+public class MyTinyCompiledTemplate {
+    private final Step root;
+    private final int frameSize;
+
+    MyTinyCompiledTemplate(Step root, int frameSize) {
+        this.root = root;
+        this.frameSize = frameSize;
+    }
+
+    public void render(Object model, MyTinyRenderSink sink) {
+        //slot 0 is the model, the other slots belong to the loop variables
+        var frame = new Object[frameSize];
+        frame[0] = model;
+        root.render(frame, sink);
+    }
+
+    public int getFrameSize() {
+        return frameSize;
+    }
+
+    //writes one part of the template
+    interface Step {
+        void render(Object[] frame, MyTinyRenderSink sink);
+    }
+
+    //decides an if without turning the value into a string
+    interface Condition {
+        boolean test(Object[] frame);
+    }
+
+    //reads a value from the frame, e.g. app.name is slot 1 followed by the name accessor
+    interface Value {
+        Object get(Object[] frame);
+    }
+}
@@ -1,86 +1,129 @@
 package de.dmitrij.patuk.template;
 
+import de.dmitrij.patuk.template.nodes.MyTinyIdentifier;
 import de.dmitrij.patuk.template.nodes.MyTinyPropertyPath;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.Map;
 
-//This handles the scopes we enter and exit during matching of our model to our PropertyPaths
-//model ("model" -> model)
-//|->employee ("employee"   -> model.employee)
-//  |->profile ("profile"   -> model.employee.profile)
-//      |->name ("name"     -> model.employee.profile.name)
+//This holds the variables we see while rendering, one slot per variable
+//model ("model" -> model)                              slot 0
+//|->employee ("employee"   -> foreach employee in ...)  slot 1
+//  |->profile ("profile"   -> foreach profile in ...)   slot 2
+//every foreach takes the next free slot and gives it back when it ends,
+//so the frame is a plain array that never holds more than the deepest nesting
 public class MyTinyContext {
-    private final Deque<Map<String, Object>> scopes = new ArrayDeque<>();
+    //shared with the template compiler, so both resolve an accessor only once
+    static final MyTinyPropertyAccessors ACCESSORS = new MyTinyPropertyAccessors();
+    private static final int DEFAULT_FRAME_SIZE = 4;
 
-    //the root scope is the main model
+    private Object[] values;
+    private String[] names;
+    private int size;
+    //null renders every foreach on the current thread
+    private MyTinyParallelForeach parallelForeach;
+
+    //the root slot is the main model
     public MyTinyContext(Object model) {
-        scopes.push(new HashMap<>());
-        scopes.peek().put("model", model);
+        this(model, DEFAULT_FRAME_SIZE);
+    }
+
+    //the slot resolver tells the template how deep it nests, so the frame never has to grow
+    public MyTinyContext(Object model, int frameSize) {
+        int capacity = Math.max(frameSize, 1);
+        values = new Object[capacity];
+        names = new String[capacity];
+        //slot 0 is written directly, a subclass overriding push must not see a half built context
+        values[0] = model;
+        names[0] = "model";
+        size = 1;
     }
 
-    //we set a new variable in the current scope
-    public void set(String name, Object value) {
-        scopes.peek().put(name, value);
+    //a copy of the frame for rendering on another thread, the variables are shared, the slots are not
+    private MyTinyContext(MyTinyContext parent) {
+        this.values = parent.values.clone();
+        this.names = parent.names.clone();
+        this.size = parent.size;
+        this.parallelForeach = parent.parallelForeach;
     }
 
-    //a new scope is always an empty hashmap that we fill with objects
-    public void pushScope() {
-        scopes.push(new HashMap<>());
+    public MyTinyContext fork() {
+        return new MyTinyContext(this);
     }
 
-    //we pop the whole hashmap with all the objects since we left that scope
-    public void popScope() {
-        scopes.pop();
+    public MyTinyContext withParallelForeach(MyTinyParallelForeach parallelForeach) {
+        this.parallelForeach = parallelForeach;
+        return this;
     }
 
-    //here we iterate over the identifiers inside a property path,
-    //and call the right getMethod
+    public MyTinyParallelForeach getParallelForeach() {
+        return parallelForeach;
+    }
+
+    //we enter a new variable and get back its slot
+    public int push(String name, Object value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+            names = Arrays.copyOf(names, size * 2);
+        }
+        values[size] = value;
+        names[size] = name;
+        return size++;
+    }
+
+    //a foreach pushes its variable once and only replaces the value for every item
+    public void set(int slot, Object value) {
+        values[slot] = value;
+    }
+
+    //we leave the innermost variable
+    public void pop() {
+        size--;
+        values[size] = null;
+        names[size] = null;
+    }
+
+    //here we take the head of the property path from its slot,
+    //and call the right getMethod for the rest
     public Object resolve(MyTinyPropertyPath path) {
         // path: identifier(.identifier)*
-        Object current = resolveIdentifier(path.getParts().get(0).getName());
-        for (int i = 1; i < path.getParts().size(); i++) {
-            current = accessProperty(current, path.getParts().get(i).getName());
+        var parts = path.getParts();
+        Object current = resolveIdentifier(parts.get(0));
+        for (int i = 1; i < parts.size(); i++) {
+            current = accessProperty(current, parts.get(i).getName());
         }
         return current;
     }
 
-    //what do we do here?
-    //we have multiple scopes
-    //model ("model" -> model)
-    //|->employee ("employee"   -> model.employee)
-    //  |->profile ("profile"   -> model.employee.profile)
-    //      |->name ("name"     -> model.employee.profile.name)
-    //each of these steps is its own Map<String, Object> scope
-    //so we iterate over the scopes until we find the right one
-    private Object resolveIdentifier(String name) {
-        for (Map<String, Object> scope : scopes) {
-            if (scope.containsKey(name)) {
-                return scope.get(name);
+    //a resolved identifier already knows its slot,
+    //a template that did not run through the resolver still finds its variables by name
+    private Object resolveIdentifier(MyTinyIdentifier identifier) {
+        int slot = identifier.getSlot();
+        if (slot >= 0 && slot < size) {
+            return values[slot];
+        }
+        if (slot == MyTinyIdentifier.UNDEFINED) {
+            return null;
+        }
+        var name = identifier.getName();
+        //innermost first, so a loop variable hides an outer one with the same name
+        for (int i = size - 1; i >= 0; i--) {
+            if (name.equals(names[i])) {
+                return values[i];
             }
         }
         return null;
     }
 
-    // we only handle getMethods here
-    // so we prepend get and capitalize
-    // than we call that method to get that object out of it
+    //the accessors are cached per class and property, so after the first render
+    //this is a map lookup and a MethodHandle call
     private Object accessProperty(Object obj, String property) {
-        // reflection or Map handling
+        if (obj == null) {
+            return null;
+        }
         if (obj instanceof Map<?, ?> map) {
             return map.get(property);
         }
-        try {
-            var method = obj.getClass().getMethod("get" + capitalize(property));
-            return method.invoke(obj);
-        } catch (Exception e) {
-            return null;
-        }
-    }
-
-    private String capitalize(String s) {
-        return Character.toUpperCase(s.charAt(0)) + s.substring(1);
+        return ACCESSORS.get(obj.getClass(), property).get(obj);
     }
 }
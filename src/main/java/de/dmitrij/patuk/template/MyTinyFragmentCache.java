@@ -0,0 +1,161 @@
+package de.dmitrij.patuk.template;
+
+import de.dmitrij.patuk.template.nodes.MyTinyCacheNode;
+import de.dmitrij.patuk.template.nodes.MyTinyForeachNode;
+import de.dmitrij.patuk.template.nodes.MyTinyIfNode;
+import de.dmitrij.patuk.template.nodes.MyTinyTemplate;
+import de.dmitrij.patuk.template.nodes.MyTinyTemplateNode;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+//Keeps the rendered output of {{ cache key ttl }} ... {{ endcache }} blocks.
+//The key is the view, the number of the block inside the view and the value of the key path:
+//("/app/apps", 0, 42) -> "<h2>List 42</h2>..."
+//A block is rendered once per key and then copied into the page until its ttl runs out.
+//The cache is bounded by the bytes of the fragments, one big list weighs as much as many small headers.
+//When it is full we evict the least recently used fragment, see MyTinyLruCache.
+public class MyTinyFragmentCache {
+    public static final long DEFAULT_MAX_BYTES = 4 * 1024 * 1024;
+    //what we count for an entry on top of its bytes: the key and the objects around them
+    static final int ENTRY_OVERHEAD = 128;
+
+    private final MyTinyLruCache<Key, Entry> fragments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public MyTinyFragmentCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    public MyTinyFragmentCache(long maxBytes) {
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("Fragment cache size must be at least 1 byte but was " + maxBytes);
+        }
+        this.fragments = new MyTinyLruCache<>(maxBytes, entry -> entry.size);
+    }
+
+    //numbers the cache blocks of a freshly loaded view and connects them to this cache,
+    //blocks that are never bound just render their content every time
+    public void bind(String viewName, MyTinyTemplate template) {
+        bindNode(viewName, template, new int[1]);
+    }
+
+    private void bindNode(String viewName, MyTinyTemplateNode node, int[] nextId) {
+        if (node instanceof MyTinyTemplate template) {
+            for (var child : template.getNodes()) {
+                bindNode(viewName, child, nextId);
+            }
+        } else if (node instanceof MyTinyIfNode ifNode) {
+            bindNode(viewName, ifNode.getThenBranch(), nextId);
+            if (ifNode.getElseBranch() != null) {
+                bindNode(viewName, ifNode.getElseBranch(), nextId);
+            }
+        } else if (node instanceof MyTinyForeachNode foreach) {
+            bindNode(viewName, foreach.getChildren(), nextId);
+        } else if (node instanceof MyTinyCacheNode cacheNode) {
+            cacheNode.bind(this, viewName, nextId[0]++);
+            bindNode(viewName, cacheNode.getChildren(), nextId);
+        }
+    }
+
+    //writes the cached fragment, or renders it with body and keeps it for ttlSeconds (0 keeps it until it is evicted)
+    public void render(String viewName, int blockId, Object keyValue, long ttlSeconds,
+                       MyTinyRenderSink sink, Consumer<MyTinyRenderSink> body) {
+        var key = new Key(viewName, blockId, keyValue);
+        var entry = fragments.get(key);
+        long now = System.nanoTime();
+        if (entry != null) {
+            if (entry.expiresAt == 0 || now - entry.expiresAt < 0) {
+                hits.increment();
+                sink.writeEncoded(entry.text, entry.utf8);
+                return;
+            }
+            if (fragments.remove(key, entry)) {
+                expirations.increment();
+            }
+        }
+        misses.increment();
+        //two requests may render the same fragment at once, the later one just replaces the first
+        var part = new MyTinyStringSink();
+        body.accept(part);
+        var text = part.toString();
+        entry = new Entry(text, text.getBytes(StandardCharsets.UTF_8),
+                ttlSeconds > 0 ? Math.max(now + ttlSeconds * 1_000_000_000L, 1) : 0);
+        evictions.add(fragments.put(key, entry).size());
+        sink.writeEncoded(entry.text, entry.utf8);
+    }
+
+    //drops all fragments of a view, e.g. when the view itself changed
+    public void evict(String viewName) {
+        fragments.removeIf(key -> key.viewName.equals(viewName));
+    }
+
+    //drops one block of a view for every key value
+    public void evict(String viewName, int blockId) {
+        fragments.removeIf(key -> key.viewName.equals(viewName) && key.blockId == blockId);
+    }
+
+    //drops one block of a view for one key value, e.g. after the list with that id changed
+    public void evict(String viewName, int blockId, Object keyValue) {
+        fragments.remove(new Key(viewName, blockId, keyValue));
+    }
+
+    public void evictAll() {
+        fragments.clear();
+    }
+
+    public int size() {
+        return fragments.size();
+    }
+
+    public long getBytes() {
+        return fragments.getWeight();
+    }
+
+    public long getMaxBytes() {
+        return fragments.getMaxWeight();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long getExpirations() {
+        return expirations.sum();
+    }
+
+    private record Key(String viewName, int blockId, Object keyValue) {
+        private Key {
+            Objects.requireNonNull(viewName);
+        }
+    }
+
+    private static class Entry {
+        private final String text;
+        private final byte[] utf8;
+        //System.nanoTime when it runs out, 0 for never
+        private final long expiresAt;
+        //we keep the text and its bytes, latin-1 text takes about as much memory as its utf-8 bytes
+        private final long size;
+
+        private Entry(String text, byte[] utf8, long expiresAt) {
+            this.text = text;
+            this.utf8 = utf8;
+            this.expiresAt = expiresAt;
+            this.size = utf8.length * 2L + ENTRY_OVERHEAD;
+        }
+    }
+}
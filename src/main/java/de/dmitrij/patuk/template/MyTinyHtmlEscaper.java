@@ -0,0 +1,82 @@
+package de.dmitrij.patuk.template;
+
+import java.nio.charset.StandardCharsets;
+
+//Replaces the chars that mean something in html with their entities before a value is written.
+//One table lookup per char tells us if it has to be replaced, the chars in between are written as one run:
+//"Tom & <b>Jerry</b>" -> "Tom " "&amp;" " " "&lt;" "b" "&gt;" "Jerry" "&lt;" "/b" "&gt;"
+//A value without any of these chars, which is most of them, is written as it is without allocating anything.
+public final class MyTinyHtmlEscaper {
+    private static final String[] REPLACEMENTS = new String[128];
+    //the same replacements as UTF-8, for sinks that write bytes
+    private static final byte[][] ENCODED = new byte[128][];
+    //all chars we replace are '>' or below, so the table for the scan stays small and most chars fail the first compare
+    private static final boolean[] ESCAPED = new boolean['>' + 1];
+
+    static {
+        REPLACEMENTS['&'] = "&amp;";
+        REPLACEMENTS['<'] = "&lt;";
+        REPLACEMENTS['>'] = "&gt;";
+        REPLACEMENTS['"'] = "&quot;";
+        REPLACEMENTS['\''] = "&#39;";
+        for (int c = 0; c < REPLACEMENTS.length; c++) {
+            if (REPLACEMENTS[c] != null) {
+                ENCODED[c] = REPLACEMENTS[c].getBytes(StandardCharsets.UTF_8);
+                ESCAPED[c] = true;
+            }
+        }
+    }
+
+    private MyTinyHtmlEscaper() {
+    }
+
+    //the entity for c or null when c can be written as it is
+    public static String replacement(char c) {
+        return c < REPLACEMENTS.length ? REPLACEMENTS[c] : null;
+    }
+
+    public static byte[] encodedReplacement(char c) {
+        return c < ENCODED.length ? ENCODED[c] : null;
+    }
+
+    //the index of the first char from index "from" on that has to be replaced, -1 if there is none
+    public static int indexOfEscaped(CharSequence text, int from) {
+        for (int i = from, length = text.length(); i < length; i++) {
+            char c = text.charAt(i);
+            if (c < ESCAPED.length && ESCAPED[c]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public static void escape(CharSequence text, MyTinyRenderSink sink) {
+        int next = indexOfEscaped(text, 0);
+        if (next < 0) {
+            sink.write(text);
+            return;
+        }
+        int start = 0;
+        while (next >= 0) {
+            if (next > start) {
+                sink.write(text, start, next);
+            }
+            sink.write(REPLACEMENTS[text.charAt(next)]);
+            start = next + 1;
+            next = indexOfEscaped(text, start);
+        }
+        if (start < text.length()) {
+            sink.write(text, start, text.length());
+        }
+    }
+
+    //for the few places that need the escaped value as a String
+    public static String escape(String text) {
+        if (indexOfEscaped(text, 0) < 0) {
+            return text;
+        }
+        var sink = new MyTinyStringSink(text.length() + 16);
+        escape(text, sink);
+        return sink.toString();
+    }
+}
@@ -0,0 +1,147 @@
+package de.dmitrij.patuk.template;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+//A map that drops the least recently used entries when the weight of its values grows over maxWeight.
+//The weight is whatever the cache bounds, the bytes of a response or 1 for a count of entries.
+//The map is a LinkedHashMap in access order: a get moves the entry to the end, so the least recently used
+//one is always first and an insert that runs over the limit evicts from the front without a scan.
+//A get changes the order of the map, so reads and writes take the same lock, it is only held for the
+//map operation itself, never while a value is built.
+public class MyTinyLruCache<K, V> {
+    private final long maxWeight;
+    private final ToLongFunction<V> weigher;
+    private final LinkedHashMap<K, V> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock();
+    private long weight;
+
+    public MyTinyLruCache(long maxWeight, ToLongFunction<V> weigher) {
+        if (maxWeight < 1) {
+            throw new IllegalArgumentException("Cache weight must be at least 1 but was " + maxWeight);
+        }
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    //the value or null, a found value becomes the most recently used one
+    public V get(K key) {
+        lock.lock();
+        try {
+            return entries.get(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //stores the value and returns the keys we evicted to make room for it,
+    //a value heavier than the whole cache is not stored, it would only push everything else out
+    public List<K> put(K key, V value) {
+        long valueWeight = weigher.applyAsLong(value);
+        if (valueWeight > maxWeight) {
+            return List.of();
+        }
+        lock.lock();
+        try {
+            var previous = entries.put(key, value);
+            weight += valueWeight - (previous == null ? 0 : weigher.applyAsLong(previous));
+            if (weight <= maxWeight) {
+                return List.of();
+            }
+            var evicted = new ArrayList<K>();
+            var iterator = entries.entrySet().iterator();
+            while (weight > maxWeight) {
+                var eldest = iterator.next();
+                weight -= weigher.applyAsLong(eldest.getValue());
+                evicted.add(eldest.getKey());
+                iterator.remove();
+            }
+            return evicted;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //removes the key only while it still maps to value, so we do not drop what another thread just put
+    public boolean remove(K key, V value) {
+        lock.lock();
+        try {
+            if (!entries.remove(key, value)) {
+                return false;
+            }
+            weight -= weigher.applyAsLong(value);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public V remove(K key) {
+        lock.lock();
+        try {
+            var removed = entries.remove(key);
+            if (removed != null) {
+                weight -= weigher.applyAsLong(removed);
+            }
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //walks all keys, it is meant for invalidation and not for the request path
+    public int removeIf(Predicate<K> filter) {
+        lock.lock();
+        try {
+            int removed = 0;
+            var iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                var entry = iterator.next();
+                if (filter.test(entry.getKey())) {
+                    weight -= weigher.applyAsLong(entry.getValue());
+                    iterator.remove();
+                    removed++;
+                }
+            }
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+            weight = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getWeight() {
+        lock.lock();
+        try {
+            return weight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+}
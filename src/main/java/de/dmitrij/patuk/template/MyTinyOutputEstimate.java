@@ -0,0 +1,22 @@
+package de.dmitrij.patuk.template;
+
+//A guess how big the output of a view will be, so the buffers can be made big enough before we render.
+//It is the biggest recent output, which shrinks by an eighth with every render that was smaller:
+//outputs 10000, 2000, 2000, 2000 -> estimate 10000, 8750, 7656, 6699
+//so a single big page is remembered for a while, but a view that got smaller lets go of its big buffers again.
+//Two renders may record at the same time and one of them is lost, for a guess that does not matter.
+public class MyTinyOutputEstimate {
+    private volatile int estimate;
+
+    //the estimate with some room to spare, 0 until the view was rendered once
+    public int get() {
+        int current = estimate;
+        return current + (current >> 3);
+    }
+
+    public void record(long size) {
+        int current = estimate;
+        int decayed = current - (current >> 3);
+        estimate = (int) Math.min(Math.max(size, decayed), Integer.MAX_VALUE - (Integer.MAX_VALUE >> 3));
+    }
+}
@@ -0,0 +1,96 @@
+package de.dmitrij.patuk.template;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+//Renders the body of a big foreach in chunks on other threads.
+//{{ foreach app : model.apps parallel }} always splits, without the flag a loop splits once it has threshold items.
+//items:   0 ... 255 | 256 ... 511 | 512 ... 700
+//         caller    | executor    | executor
+//The caller renders the first chunk straight into the sink while the others render into their own buffers,
+//which are written afterwards in their order. Every chunk works on its own copy of the variable frame,
+//the model itself is only read, so it has to be safe to read from several threads.
+public class MyTinyParallelForeach {
+    public static final int DEFAULT_CHUNK_SIZE = 256;
+
+    private final Executor executor;
+    //0 means only loops with the parallel flag are split
+    private final int threshold;
+    private final int chunkSize;
+
+    public MyTinyParallelForeach(Executor executor, int threshold, int chunkSize) {
+        this.executor = executor;
+        this.threshold = threshold;
+        this.chunkSize = Math.max(chunkSize, 1);
+    }
+
+    public boolean shouldSplit(boolean parallelFlag, Object collection) {
+        if (parallelFlag) {
+            return true;
+        }
+        return threshold > 0 && collection instanceof Collection<?> items && items.size() >= threshold;
+    }
+
+    //forks gives every chunk its own renderer with its own copy of the frame
+    public void render(Iterable<?> iterable, MyTinyRenderSink sink, Supplier<ItemRenderer> forks) {
+        var items = toList(iterable);
+        if (items.size() <= chunkSize) {
+            renderChunk(items, forks.get(), sink);
+            return;
+        }
+        var chunks = new ArrayList<CompletableFuture<MyTinyStringSink>>();
+        for (int start = chunkSize; start < items.size(); start += chunkSize) {
+            var chunk = items.subList(start, Math.min(start + chunkSize, items.size()));
+            chunks.add(CompletableFuture.supplyAsync(() -> {
+                var chunkSink = new MyTinyStringSink();
+                renderChunk(chunk, forks.get(), chunkSink);
+                return chunkSink;
+            }, executor));
+        }
+        try {
+            renderChunk(items.subList(0, chunkSize), forks.get(), sink);
+            for (var chunk : chunks) {
+                sink.write(chunk.join().getBuffer());
+            }
+        } catch (CompletionException e) {
+            //the chunk failed the same way a serial loop would have
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        } finally {
+            //a failed chunk should not leave the others rendering for nothing
+            for (var chunk : chunks) {
+                chunk.cancel(false);
+            }
+        }
+    }
+
+    private void renderChunk(List<?> items, ItemRenderer renderer, MyTinyRenderSink sink) {
+        for (Object item : items) {
+            renderer.render(item, sink);
+        }
+    }
+
+    private static List<?> toList(Iterable<?> iterable) {
+        if (iterable instanceof List<?> list) {
+            return list;
+        }
+        var items = new ArrayList<>();
+        iterable.forEach(items::add);
+        return items;
+    }
+
+    //renders the foreach body for one item
+    public interface ItemRenderer {
+        void render(Object item, MyTinyRenderSink sink);
+    }
+}
@@ -57,6 +57,20 @@ public class MyTinyParser {
                 return parseIf(stream);       // parseIf assumes KEYWORD 'if' is next
             } else if ("foreach".equals(kw)) {
                 return parseForeach(stream);  // parseForeach assumes KEYWORD 'foreach' is next
+            } else if ("cache".equals(kw)) {
+                return parseCache(stream);    // parseCache assumes KEYWORD 'cache' is next
+            } else if ("include".equals(kw)) {
+                expectAndRemove(stream, MyTinyTokenType.KEYWORD, "include");
+                return new MyTinyIncludeNode(parseViewName(stream));
+            } else if ("extends".equals(kw)) {
+                expectAndRemove(stream, MyTinyTokenType.KEYWORD, "extends");
+                return new MyTinyExtendsNode(parseViewName(stream));
+            } else if ("block".equals(kw)) {
+                return parseBlock(stream);    // parseBlock assumes KEYWORD 'block' is next
+            } else if ("raw".equals(kw)) {
+                //{{ raw model.html }} writes the value without escaping it
+                expectAndRemove(stream, MyTinyTokenType.KEYWORD, "raw");
+                return parseExpression(stream).asRaw();
             } else {
                 throw new RuntimeException("Unknown directive: " + kw);
             }
@@ -67,23 +81,64 @@ public class MyTinyParser {
     }
 
     private MyTinyExpressionNode parseExpression(MyTinyTokenStream stream) {
+        var expression = parsePropertyPath(stream);
+        // expression consumes the closing braces
+        expectAndRemove(stream, MyTinyTokenType.RBRACE2);
+        return expression;
+    }
+
+    private MyTinyExpressionNode parsePropertyPath(MyTinyTokenStream stream) {
         // parse property path (ident(.ident)*)
         List<MyTinyIdentifier> parts = new ArrayList<>();
         parts.add(parseIdentifier(stream));
         while (stream.peek() != null && stream.peek().getType() == MyTinyTokenType.DOT) {
             stream.next(); // consume DOT
-            parts.add(parseIdentifier(stream));
+            parts.add(parsePropertyName(stream));
         }
-        // expression consumes the closing braces
-        expectAndRemove(stream, MyTinyTokenType.RBRACE2);
         return new MyTinyExpressionNode(new MyTinyPropertyPath(parts));
     }
 
+    // condition: and ('or' and)*
+    // and:       unary ('and' unary)*
+    // unary:     'not' unary | property path
+    // so "not a and b or c" is "((not a) and b) or c"
+    private MyTinyConditionNode parseCondition(MyTinyTokenStream stream) {
+        MyTinyConditionNode left = parseAnd(stream);
+        while (isKeyword(stream, "or")) {
+            stream.next();
+            left = new MyTinyOrNode(left, parseAnd(stream));
+        }
+        return left;
+    }
+
+    private MyTinyConditionNode parseAnd(MyTinyTokenStream stream) {
+        MyTinyConditionNode left = parseUnary(stream);
+        while (isKeyword(stream, "and")) {
+            stream.next();
+            left = new MyTinyAndNode(left, parseUnary(stream));
+        }
+        return left;
+    }
+
+    private MyTinyConditionNode parseUnary(MyTinyTokenStream stream) {
+        if (isKeyword(stream, "not")) {
+            stream.next();
+            return new MyTinyNotNode(parseUnary(stream));
+        }
+        return parsePropertyPath(stream);
+    }
+
+    private boolean isKeyword(MyTinyTokenStream stream, String keyword) {
+        var token = stream.peek();
+        return token != null && token.getType() == MyTinyTokenType.KEYWORD && keyword.equals(token.getToken());
+    }
+
     private MyTinyIfNode parseIf(MyTinyTokenStream stream) {
         // the stream is currently at KEYWORD "if"
         expectAndRemove(stream, MyTinyTokenType.KEYWORD, "if");
-        // we now parse condition expression - parseExpression will consume its closing '}}'
-        MyTinyExpressionNode condition = parseExpression(stream);
+        // we now parse the condition and its closing '}}'
+        MyTinyConditionNode condition = parseCondition(stream);
+        expectAndRemove(stream, MyTinyTokenType.RBRACE2);
         // we now parse then-branch until 'else' or 'endif'
         MyTinyTemplate thenBranch = parseTemplate(stream, Set.of("else", "endif"));
 
@@ -111,7 +166,13 @@ public class MyTinyParser {
         var loopVariable = parseIdentifier(stream);
         expectAndRemove(stream, MyTinyTokenType.COLON);
         //we parse the expression it consumes its closing '}}'
-        MyTinyExpressionNode collection = parseExpression(stream);
+        MyTinyExpressionNode collection = parsePropertyPath(stream);
+        //an optional flag after the collection
+        boolean parallel = isKeyword(stream, "parallel");
+        if (parallel) {
+            stream.next();
+        }
+        expectAndRemove(stream, MyTinyTokenType.RBRACE2);
 
         //we have to parse the body until '{{ endforeach }}' appears
         MyTinyTemplate body = parseTemplate(stream, Set.of("endforeach"));
@@ -121,7 +182,59 @@ public class MyTinyParser {
         expectAndRemove(stream, MyTinyTokenType.KEYWORD, "endforeach");
         expectAndRemove(stream, MyTinyTokenType.RBRACE2);
 
-        return new MyTinyForeachNode(loopVariable, collection, body);
+        return new MyTinyForeachNode(loopVariable, collection, body, parallel);
+    }
+
+    private MyTinyCacheNode parseCache(MyTinyTokenStream stream) {
+        // stream at KEYWORD "cache"
+        expectAndRemove(stream, MyTinyTokenType.KEYWORD, "cache");
+        var key = parsePropertyPath(stream);
+        // the ttl in seconds is optional, the tokenizer gives us numbers as identifiers
+        long ttlSeconds = 0;
+        if (stream.peek() != null && stream.peek().getType() == MyTinyTokenType.IDENTIFIER) {
+            var ttl = stream.next().getToken();
+            try {
+                ttlSeconds = Long.parseLong(ttl);
+            } catch (NumberFormatException e) {
+                throw new RuntimeException("Cache ttl must be a number of seconds but was " + ttl);
+            }
+        }
+        expectAndRemove(stream, MyTinyTokenType.RBRACE2);
+
+        //we have to parse the body until '{{ endcache }}' appears
+        MyTinyTemplate body = parseTemplate(stream, Set.of("endcache"));
+
+        //we now consume '{{ endcache }}'
+        expectAndRemove(stream, MyTinyTokenType.LBRACE2);
+        expectAndRemove(stream, MyTinyTokenType.KEYWORD, "endcache");
+        expectAndRemove(stream, MyTinyTokenType.RBRACE2);
+
+        return new MyTinyCacheNode(key, ttlSeconds, body);
+    }
+
+    // "app/layout" }}
+    private String parseViewName(MyTinyTokenStream stream) {
+        var token = stream.peek();
+        expectAndRemove(stream, MyTinyTokenType.STRING);
+        expectAndRemove(stream, MyTinyTokenType.RBRACE2);
+        return token.getToken();
+    }
+
+    private MyTinyBlockNode parseBlock(MyTinyTokenStream stream) {
+        // stream at KEYWORD "block"
+        expectAndRemove(stream, MyTinyTokenType.KEYWORD, "block");
+        var name = parseIdentifier(stream);
+        expectAndRemove(stream, MyTinyTokenType.RBRACE2);
+
+        //we have to parse the body until '{{ endblock }}' appears
+        MyTinyTemplate body = parseTemplate(stream, Set.of("endblock"));
+
+        //we now consume '{{ endblock }}'
+        expectAndRemove(stream, MyTinyTokenType.LBRACE2);
+        expectAndRemove(stream, MyTinyTokenType.KEYWORD, "endblock");
+        expectAndRemove(stream, MyTinyTokenType.RBRACE2);
+
+        return new MyTinyBlockNode(name.getName(), body);
     }
 
     private void expectAndRemove(MyTinyTokenStream stream, MyTinyTokenType expected) {
@@ -147,6 +260,14 @@ public class MyTinyParser {
     }
 
 
+    //after a dot a keyword is just a property, e.g. {{ item.block }} or {{ model.raw }}
+    private MyTinyIdentifier parsePropertyName(MyTinyTokenStream stream) {
+        if (stream.peek() != null && stream.peek().getType() == MyTinyTokenType.KEYWORD) {
+            return new MyTinyIdentifier(stream.next().getToken());
+        }
+        return parseIdentifier(stream);
+    }
+
     private MyTinyIdentifier parseIdentifier(MyTinyTokenStream stream) {
         if (stream.peek() == null) {
             throw new RuntimeException("Streams next token was null!");
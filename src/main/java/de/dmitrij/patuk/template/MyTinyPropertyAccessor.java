@@ -0,0 +1,9 @@
+package de.dmitrij.patuk.template;
+
+//Reads one property of an object, resolved once per class and property name
+public interface MyTinyPropertyAccessor {
+    //used for properties a class does not have, so a miss costs nothing on the next render
+    MyTinyPropertyAccessor MISSING = target -> null;
+
+    Object get(Object target);
+}
@@ -0,0 +1,103 @@
+package de.dmitrij.patuk.template;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+//Finds and caches how to read a property of a class.
+//For the property "name" we look for, in this order:
+//1. getName()
+//2. isName() returning a boolean
+//3. name() - record components, but also methods like isPremium() used as {{ app.isPremium }}
+//4. a public field called name
+//The result is a MethodHandle based accessor, or MISSING if nothing matched.
+public class MyTinyPropertyAccessors {
+    //ClassValue keeps one map per class and does not keep the class from being unloaded
+    private final ClassValue<Map<String, MyTinyPropertyAccessor>> accessors = new ClassValue<>() {
+        @Override
+        protected Map<String, MyTinyPropertyAccessor> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    public MyTinyPropertyAccessor get(Class<?> type, String property) {
+        var byName = accessors.get(type);
+        var accessor = byName.get(property);
+        if (accessor == null) {
+            accessor = byName.computeIfAbsent(property, name -> resolve(type, name));
+        }
+        return accessor;
+    }
+
+    private MyTinyPropertyAccessor resolve(Class<?> type, String property) {
+        if (property.isEmpty()) {
+            return MyTinyPropertyAccessor.MISSING;
+        }
+        var capitalized = Character.toUpperCase(property.charAt(0)) + property.substring(1);
+        var method = findMethod(type, "get" + capitalized);
+        if (method == null) {
+            method = findMethod(type, "is" + capitalized);
+            if (method != null && method.getReturnType() != boolean.class && method.getReturnType() != Boolean.class) {
+                method = null;
+            }
+        }
+        if (method == null) {
+            method = findMethod(type, property);
+        }
+        try {
+            if (method != null) {
+                var lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+                return fromHandle(lookup.unreflect(method));
+            }
+            var field = findField(type, property);
+            if (field != null) {
+                var lookup = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup());
+                return fromHandle(lookup.unreflectGetter(field));
+            }
+        } catch (IllegalAccessException e) {
+            System.out.printf("Unable to access property %s of %s: %s%n", property, type.getName(), e.getMessage());
+        }
+        return MyTinyPropertyAccessor.MISSING;
+    }
+
+    private MyTinyPropertyAccessor fromHandle(MethodHandle handle) {
+        //(SomeType)ReturnType -> (Object)Object so we can call invokeExact
+        var generic = handle.asType(MethodType.methodType(Object.class, Object.class));
+        return target -> {
+            try {
+                return generic.invokeExact(target);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                //a failing getter renders as empty, like a missing property
+                return null;
+            }
+        };
+    }
+
+    private Method findMethod(Class<?> type, String name) {
+        try {
+            var method = type.getMethod(name);
+            if (method.getReturnType() == void.class || Modifier.isStatic(method.getModifiers())) {
+                return null;
+            }
+            return method;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private Field findField(Class<?> type, String name) {
+        try {
+            var field = type.getField(name);
+            return Modifier.isStatic(field.getModifiers()) ? null : field;
+        } catch (NoSuchFieldException e) {
+            return null;
+        }
+    }
+}
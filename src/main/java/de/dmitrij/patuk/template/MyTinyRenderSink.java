@@ -0,0 +1,23 @@
+package de.dmitrij.patuk.template;
+
+//Where the template nodes write their output to.
+//Every node writes straight into the sink, so nothing is built up and copied to the parent node.
+public interface MyTinyRenderSink {
+    void write(CharSequence text);
+
+    //writes the chars from start to end, sinks that can take a part of the text without copying it override this
+    default void write(CharSequence text, int start, int end) {
+        write(text.subSequence(start, end));
+    }
+
+    //a value from the model, html chars in it are replaced by their entities, see MyTinyHtmlEscaper
+    default void writeEscaped(CharSequence text) {
+        MyTinyHtmlEscaper.escape(text, this);
+    }
+
+    //static template text, the bytes are the UTF-8 form of the text and were encoded once when the view was parsed
+    //a sink that produces bytes copies them as they are, all others just use the text
+    default void writeEncoded(String text, byte[] utf8) {
+        write(text);
+    }
+}
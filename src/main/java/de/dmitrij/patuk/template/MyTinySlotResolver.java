@@ -0,0 +1,91 @@
+package de.dmitrij.patuk.template;
+
+import de.dmitrij.patuk.template.nodes.MyTinyAndNode;
+import de.dmitrij.patuk.template.nodes.MyTinyCacheNode;
+import de.dmitrij.patuk.template.nodes.MyTinyConditionNode;
+import de.dmitrij.patuk.template.nodes.MyTinyExpressionNode;
+import de.dmitrij.patuk.template.nodes.MyTinyForeachNode;
+import de.dmitrij.patuk.template.nodes.MyTinyIdentifier;
+import de.dmitrij.patuk.template.nodes.MyTinyIfNode;
+import de.dmitrij.patuk.template.nodes.MyTinyNotNode;
+import de.dmitrij.patuk.template.nodes.MyTinyOrNode;
+import de.dmitrij.patuk.template.nodes.MyTinyTemplate;
+import de.dmitrij.patuk.template.nodes.MyTinyTemplateNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//This runs once after parsing and tells every variable where it lives at render time.
+//The model is slot 0 and every foreach takes the next slot for its loop variable:
+//{{ foreach app in model.apps }}               app   -> slot 1
+//  {{ foreach tag in app.tags }}               tag   -> slot 2
+//    {{ tag.name }} {{ app.name }}             heads -> slot 2, slot 1
+//Since the nesting is known from the tree the context at render time has the same slots,
+//so a lookup is an array access instead of a search through the scopes.
+public class MyTinySlotResolver {
+
+    //binds all identifiers of the template and remembers the frame size on it
+    public int resolve(MyTinyTemplate template) {
+        var scope = new ArrayList<String>();
+        scope.add("model");
+        int frameSize = resolveNode(template, scope);
+        template.setFrameSize(frameSize);
+        return frameSize;
+    }
+
+    //returns how many slots the node needs, counting the ones already in scope
+    private int resolveNode(MyTinyTemplateNode node, List<String> scope) {
+        int frameSize = scope.size();
+        if (node instanceof MyTinyTemplate template) {
+            for (var child : template.getNodes()) {
+                frameSize = Math.max(frameSize, resolveNode(child, scope));
+            }
+        } else if (node instanceof MyTinyExpressionNode expression) {
+            bind(expression, scope);
+        } else if (node instanceof MyTinyIfNode ifNode) {
+            bindCondition(ifNode.getCondition(), scope);
+            frameSize = Math.max(frameSize, resolveNode(ifNode.getThenBranch(), scope));
+            if (ifNode.getElseBranch() != null) {
+                frameSize = Math.max(frameSize, resolveNode(ifNode.getElseBranch(), scope));
+            }
+        } else if (node instanceof MyTinyForeachNode foreach) {
+            //the collection is resolved outside of the loop, so it can not see the loop variable
+            bind(foreach.getCollectionName(), scope);
+            foreach.getLoopVar().bindSlot(scope.size());
+            scope.add(foreach.getLoopVar().getName());
+            frameSize = Math.max(frameSize, resolveNode(foreach.getChildren(), scope));
+            scope.removeLast();
+        } else if (node instanceof MyTinyCacheNode cacheNode) {
+            bind(cacheNode.getKey(), scope);
+            frameSize = Math.max(frameSize, resolveNode(cacheNode.getChildren(), scope));
+        }
+        return frameSize;
+    }
+
+    private void bindCondition(MyTinyConditionNode condition, List<String> scope) {
+        if (condition instanceof MyTinyExpressionNode expression) {
+            bind(expression, scope);
+        } else if (condition instanceof MyTinyNotNode not) {
+            bindCondition(not.getOperand(), scope);
+        } else if (condition instanceof MyTinyAndNode and) {
+            bindCondition(and.getLeft(), scope);
+            bindCondition(and.getRight(), scope);
+        } else if (condition instanceof MyTinyOrNode or) {
+            bindCondition(or.getLeft(), scope);
+            bindCondition(or.getRight(), scope);
+        }
+    }
+
+    //only the head of a path is a variable, the rest are properties of it
+    private void bind(MyTinyExpressionNode expression, List<String> scope) {
+        var head = expression.getPropertyPath().getParts().get(0);
+        head.bindSlot(MyTinyIdentifier.UNDEFINED);
+        //innermost first, so a loop variable hides an outer one with the same name
+        for (int i = scope.size() - 1; i >= 0; i--) {
+            if (scope.get(i).equals(head.getName())) {
+                head.bindSlot(i);
+                return;
+            }
+        }
+    }
+}
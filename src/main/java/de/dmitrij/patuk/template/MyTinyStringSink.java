@@ -0,0 +1,38 @@
+package de.dmitrij.patuk.template;
+
+//Collects the output in memory, used when we need the page as a String
+public class MyTinyStringSink implements MyTinyRenderSink {
+    private final StringBuilder sb;
+
+    public MyTinyStringSink() {
+        this(256);
+    }
+
+    public MyTinyStringSink(int capacity) {
+        this.sb = new StringBuilder(capacity);
+    }
+
+    @Override
+    public void write(CharSequence text) {
+        sb.append(text);
+    }
+
+    @Override
+    public void write(CharSequence text, int start, int end) {
+        sb.append(text, start, end);
+    }
+
+    public int length() {
+        return sb.length();
+    }
+
+    //the output so far without copying it
+    public CharSequence getBuffer() {
+        return sb;
+    }
+
+    @Override
+    public String toString() {
+        return sb.toString();
+    }
+}
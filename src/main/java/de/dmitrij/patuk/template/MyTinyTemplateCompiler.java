@@ -0,0 +1,250 @@
+package de.dmitrij.patuk.template;
+
+import de.dmitrij.patuk.template.MyTinyCompiledTemplate.Condition;
+import de.dmitrij.patuk.template.MyTinyCompiledTemplate.Step;
+import de.dmitrij.patuk.template.MyTinyCompiledTemplate.Value;
+import de.dmitrij.patuk.template.nodes.MyTinyAndNode;
+import de.dmitrij.patuk.template.nodes.MyTinyCacheNode;
+import de.dmitrij.patuk.template.nodes.MyTinyConditionNode;
+import de.dmitrij.patuk.template.nodes.MyTinyExpressionNode;
+import de.dmitrij.patuk.template.nodes.MyTinyForeachNode;
+import de.dmitrij.patuk.template.nodes.MyTinyIdentifier;
+import de.dmitrij.patuk.template.nodes.MyTinyIfNode;
+import de.dmitrij.patuk.template.nodes.MyTinyNotNode;
+import de.dmitrij.patuk.template.nodes.MyTinyOrNode;
+import de.dmitrij.patuk.template.nodes.MyTinyPropertyPath;
+import de.dmitrij.patuk.template.nodes.MyTinyTemplate;
+import de.dmitrij.patuk.template.nodes.MyTinyTemplateNode;
+import de.dmitrij.patuk.template.nodes.MyTinyTextNode;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+//Turns a slot resolved template into steps that run without walking the tree:
+//Text("<li>") Expression(app.name) Text("</li>")  -> one step per part, adjacent texts merged
+//Expression(app.name)                              -> frame[1] followed by a cached accessor
+//Foreach(app in model.apps)                        -> a plain for loop writing frame[1]
+//Anything we do not know how to compile throws, and the caller keeps using the interpreter.
+public class MyTinyTemplateCompiler {
+    private static final Step EMPTY = (frame, sink) -> {
+    };
+
+    //null keeps every loop on the rendering thread
+    private final MyTinyParallelForeach parallelForeach;
+
+    public MyTinyTemplateCompiler() {
+        this(null);
+    }
+
+    public MyTinyTemplateCompiler(MyTinyParallelForeach parallelForeach) {
+        this.parallelForeach = parallelForeach;
+    }
+
+    public MyTinyCompiledTemplate compile(MyTinyTemplate template) {
+        if (template.getFrameSize() == 0) {
+            throw new RuntimeException("Template has to be slot resolved before it can be compiled");
+        }
+        return new MyTinyCompiledTemplate(compileNode(template), template.getFrameSize());
+    }
+
+    private Step compileNode(MyTinyTemplateNode node) {
+        if (node instanceof MyTinyTemplate template) {
+            return compileSequence(template.getNodes());
+        }
+        if (node instanceof MyTinyTextNode text) {
+            return compileText(text.getText());
+        }
+        if (node instanceof MyTinyExpressionNode expression) {
+            var value = compileValue(expression.getPropertyPath());
+            if (expression.isRaw()) {
+                return (frame, sink) -> {
+                    var result = value.get(frame);
+                    if (result != null) {
+                        sink.write(result.toString());
+                    }
+                };
+            }
+            return (frame, sink) -> {
+                var result = value.get(frame);
+                if (result != null) {
+                    sink.writeEscaped(result.toString());
+                }
+            };
+        }
+        if (node instanceof MyTinyIfNode ifNode) {
+            var condition = compileCondition(ifNode.getCondition());
+            var thenStep = compileNode(ifNode.getThenBranch());
+            var elseStep = ifNode.getElseBranch() == null ? EMPTY : compileNode(ifNode.getElseBranch());
+            return (frame, sink) -> {
+                if (condition.test(frame)) {
+                    thenStep.render(frame, sink);
+                } else {
+                    elseStep.render(frame, sink);
+                }
+            };
+        }
+        if (node instanceof MyTinyForeachNode foreach) {
+            var collection = compileValue(foreach.getCollectionName().getPropertyPath());
+            int slot = foreach.getLoopVar().getSlot();
+            if (slot < 0) {
+                throw new RuntimeException("Loop variable " + foreach.getLoopVar().getName() + " has no slot");
+            }
+            var body = compileNode(foreach.getChildren());
+            boolean parallel = foreach.isParallel();
+            return (frame, sink) -> {
+                if (!(collection.get(frame) instanceof Iterable<?> iterable)) return;
+                if (parallelForeach != null && parallelForeach.shouldSplit(parallel, iterable)) {
+                    parallelForeach.render(iterable, sink, () -> {
+                        //every chunk gets its own copy of the frame
+                        var fork = frame.clone();
+                        return (item, chunkSink) -> {
+                            fork[slot] = item;
+                            body.render(fork, chunkSink);
+                        };
+                    });
+                    return;
+                }
+                for (Object item : iterable) {
+                    frame[slot] = item;
+                    body.render(frame, sink);
+                }
+                frame[slot] = null;
+            };
+        }
+        if (node instanceof MyTinyCacheNode cacheNode) {
+            //the fragment cache was bound before compiling, the node knows where its fragments live
+            var key = compileValue(cacheNode.getKey().getPropertyPath());
+            var body = compileNode(cacheNode.getChildren());
+            return (frame, sink) -> cacheNode.render(key.get(frame), sink, part -> body.render(frame, part));
+        }
+        throw new RuntimeException("Cannot compile " + node.getClass().getSimpleName());
+    }
+
+    private Condition compileCondition(MyTinyConditionNode condition) {
+        if (condition instanceof MyTinyExpressionNode expression) {
+            var value = compileValue(expression.getPropertyPath());
+            return frame -> MyTinyTruthiness.isTruthy(value.get(frame));
+        }
+        if (condition instanceof MyTinyNotNode not) {
+            var operand = compileCondition(not.getOperand());
+            return frame -> !operand.test(frame);
+        }
+        if (condition instanceof MyTinyAndNode and) {
+            var left = compileCondition(and.getLeft());
+            var right = compileCondition(and.getRight());
+            return frame -> left.test(frame) && right.test(frame);
+        }
+        if (condition instanceof MyTinyOrNode or) {
+            var left = compileCondition(or.getLeft());
+            var right = compileCondition(or.getRight());
+            return frame -> left.test(frame) || right.test(frame);
+        }
+        throw new RuntimeException("Cannot compile condition " + condition.getClass().getSimpleName());
+    }
+
+    private Step compileSequence(List<MyTinyTemplateNode> nodes) {
+        var steps = new ArrayList<Step>(nodes.size());
+        StringBuilder pendingText = null;
+        for (var node : nodes) {
+            //texts next to each other become one constant
+            if (node instanceof MyTinyTextNode text) {
+                if (pendingText == null) {
+                    pendingText = new StringBuilder();
+                }
+                pendingText.append(text.getText());
+                continue;
+            }
+            if (pendingText != null) {
+                steps.add(compileText(pendingText.toString()));
+                pendingText = null;
+            }
+            steps.add(compileNode(node));
+        }
+        if (pendingText != null) {
+            steps.add(compileText(pendingText.toString()));
+        }
+        if (steps.isEmpty()) {
+            return EMPTY;
+        }
+        if (steps.size() == 1) {
+            return steps.getFirst();
+        }
+        if (steps.size() == 2) {
+            var first = steps.get(0);
+            var second = steps.get(1);
+            return (frame, sink) -> {
+                first.render(frame, sink);
+                second.render(frame, sink);
+            };
+        }
+        var all = steps.toArray(new Step[0]);
+        return (frame, sink) -> {
+            for (var step : all) {
+                step.render(frame, sink);
+            }
+        };
+    }
+
+    private Step compileText(String text) {
+        if (text.isEmpty()) {
+            return EMPTY;
+        }
+        //encoded once here, the sink only copies the bytes on every render
+        var utf8 = text.getBytes(StandardCharsets.UTF_8);
+        return (frame, sink) -> sink.writeEncoded(text, utf8);
+    }
+
+    private Value compileValue(MyTinyPropertyPath path) {
+        var parts = path.getParts();
+        var head = parts.get(0);
+        int slot = head.getSlot();
+        Value value;
+        if (slot == MyTinyIdentifier.UNDEFINED) {
+            return frame -> null;
+        } else if (slot >= 0) {
+            value = frame -> frame[slot];
+        } else {
+            throw new RuntimeException("Variable " + head.getName() + " has no slot");
+        }
+        for (int i = 1; i < parts.size(); i++) {
+            value = new PropertyValue(value, parts.get(i).getName());
+        }
+        return value;
+    }
+
+    //reads one property and remembers the accessor for the last class it saw,
+    //a view mostly renders the same types, so the cache almost always hits
+    private static final class PropertyValue implements Value {
+        private final Value target;
+        private final String property;
+        //type and accessor are swapped together, so concurrent renders never see a mixed pair
+        private Cached cached;
+
+        PropertyValue(Value target, String property) {
+            this.target = target;
+            this.property = property;
+        }
+
+        @Override
+        public Object get(Object[] frame) {
+            var obj = target.get(frame);
+            if (obj == null) {
+                return null;
+            }
+            if (obj instanceof Map<?, ?> map) {
+                return map.get(property);
+            }
+            var current = cached;
+            if (current == null || current.type != obj.getClass()) {
+                current = new Cached(obj.getClass(), MyTinyContext.ACCESSORS.get(obj.getClass(), property));
+                cached = current;
+            }
+            return current.accessor.get(obj);
+        }
+    }
+
+    private record Cached(Class<?> type, MyTinyPropertyAccessor accessor) {
+    }
+}
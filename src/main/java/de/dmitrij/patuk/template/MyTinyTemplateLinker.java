@@ -0,0 +1,179 @@
+package de.dmitrij.patuk.template;
+
+import de.dmitrij.patuk.template.nodes.MyTinyBlockNode;
+import de.dmitrij.patuk.template.nodes.MyTinyCacheNode;
+import de.dmitrij.patuk.template.nodes.MyTinyExtendsNode;
+import de.dmitrij.patuk.template.nodes.MyTinyForeachNode;
+import de.dmitrij.patuk.template.nodes.MyTinyIfNode;
+import de.dmitrij.patuk.template.nodes.MyTinyIncludeNode;
+import de.dmitrij.patuk.template.nodes.MyTinyTemplate;
+import de.dmitrij.patuk.template.nodes.MyTinyTemplateNode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+//Puts includes and layouts together into one tree when a view is loaded, so rendering never looks up another view.
+//{{ include "app/app-item" }}       -> the nodes of the parsed partial
+//{{ extends "app/layout" }}         -> the nodes of the layout, where each {{ block name }} of the layout
+//{{ block content }}...{{ endblock }}  is replaced by the block with the same name from the view
+//A layout may extend another layout, the innermost view wins. Content of a view outside of its blocks is ignored.
+//Every include site gets its own freshly parsed copy, since the slots and fragment blocks differ per place.
+public class MyTinyTemplateLinker {
+    //parses a view by name, e.g. "/app/layout", and has to return a new tree on every call
+    private final Function<String, MyTinyTemplate> parser;
+
+    public MyTinyTemplateLinker(Function<String, MyTinyTemplate> parser) {
+        this.parser = parser;
+    }
+
+    //the linked template remembers all views it was built from, see getDependencies
+    public MyTinyTemplate link(String viewName, MyTinyTemplate template) {
+        var dependencies = new LinkedHashSet<String>();
+        var stack = new ArrayDeque<String>();
+        stack.push(normalize(viewName));
+        var linked = linkTemplate(template, stack, dependencies);
+        var result = (MyTinyTemplate) rewrite(linked, this::unwrapBlock);
+        result.setDependencies(dependencies);
+        return result;
+    }
+
+    //"app/layout" and "/app/layout" are the same view
+    public static String normalize(String viewName) {
+        return viewName.startsWith("/") ? viewName : "/" + viewName;
+    }
+
+    private MyTinyTemplate linkTemplate(MyTinyTemplate template, Deque<String> stack, Set<String> dependencies) {
+        var linked = (MyTinyTemplate) rewrite(template, node -> node instanceof MyTinyIncludeNode include
+                ? load(include.getViewName(), stack, dependencies)
+                : null);
+        MyTinyExtendsNode extendsNode = null;
+        for (var node : linked.getNodes()) {
+            if (node instanceof MyTinyExtendsNode found) {
+                extendsNode = found;
+                break;
+            }
+        }
+        if (extendsNode == null) {
+            return linked;
+        }
+        var blocks = new HashMap<String, MyTinyBlockNode>();
+        collectBlocks(linked, blocks);
+        var layoutName = normalize(extendsNode.getViewName());
+        var layout = load(layoutName, stack, dependencies);
+        return (MyTinyTemplate) rewrite(layout, new BlockReplacer(layoutName, blocks));
+    }
+
+    private MyTinyTemplate load(String viewName, Deque<String> stack, Set<String> dependencies) {
+        var name = normalize(viewName);
+        if (stack.contains(name)) {
+            var cycle = new ArrayList<>(stack.reversed());
+            cycle.add(name);
+            throw new RuntimeException("Views include each other: " + String.join(" -> ", cycle));
+        }
+        dependencies.add(name);
+        stack.push(name);
+        try {
+            return linkTemplate(parser.apply(name), stack, dependencies);
+        } finally {
+            stack.pop();
+        }
+    }
+
+    private void collectBlocks(MyTinyTemplateNode node, Map<String, MyTinyBlockNode> blocks) {
+        rewrite(node, child -> {
+            if (child instanceof MyTinyBlockNode block) {
+                blocks.putIfAbsent(block.getName(), block);
+                collectBlocks(block.getChildren(), blocks);
+                return block;
+            }
+            return null;
+        });
+    }
+
+    private MyTinyTemplateNode unwrapBlock(MyTinyTemplateNode node) {
+        if (node instanceof MyTinyBlockNode block) {
+            return rewrite(block.getChildren(), this::unwrapBlock);
+        }
+        return null;
+    }
+
+    //puts the blocks of the view in place of the blocks of the layout
+    private class BlockReplacer implements Function<MyTinyTemplateNode, MyTinyTemplateNode> {
+        private final String layoutName;
+        private final Map<String, MyTinyBlockNode> blocks;
+        private final Set<String> seen = new HashSet<>();
+        //blocks we are inside of, a block that contains a block of the same name is left alone
+        private final Set<String> active = new HashSet<>();
+
+        private BlockReplacer(String layoutName, Map<String, MyTinyBlockNode> blocks) {
+            this.layoutName = layoutName;
+            this.blocks = blocks;
+        }
+
+        @Override
+        public MyTinyTemplateNode apply(MyTinyTemplateNode node) {
+            if (!(node instanceof MyTinyBlockNode block) || active.contains(block.getName())) {
+                return null;
+            }
+            //the same nodes can not be put into two places of the tree
+            if (!seen.add(block.getName())) {
+                throw new RuntimeException("Block " + block.getName() + " is used twice in " + layoutName);
+            }
+            var replacement = blocks.getOrDefault(block.getName(), block);
+            active.add(block.getName());
+            try {
+                //the replacement may contain blocks the view replaces as well
+                var children = (MyTinyTemplate) rewrite(replacement.getChildren(), this);
+                return new MyTinyBlockNode(block.getName(), children);
+            } finally {
+                active.remove(block.getName());
+            }
+        }
+    }
+
+    //builds the tree again with every node the replacer returns something for replaced,
+    //a replacement that is a template is spliced into its parent
+    private MyTinyTemplateNode rewrite(MyTinyTemplateNode node, Function<MyTinyTemplateNode, MyTinyTemplateNode> replacer) {
+        var replaced = replacer.apply(node);
+        if (replaced != null) {
+            return replaced;
+        }
+        if (node instanceof MyTinyTemplate template) {
+            List<MyTinyTemplateNode> nodes = new ArrayList<>(template.getNodes().size());
+            for (var child : template.getNodes()) {
+                var rewritten = rewrite(child, replacer);
+                if (rewritten instanceof MyTinyTemplate inner) {
+                    nodes.addAll(inner.getNodes());
+                } else {
+                    nodes.add(rewritten);
+                }
+            }
+            return new MyTinyTemplate(nodes);
+        }
+        if (node instanceof MyTinyIfNode ifNode) {
+            var thenBranch = (MyTinyTemplate) rewrite(ifNode.getThenBranch(), replacer);
+            var elseBranch = ifNode.getElseBranch() == null ? null : (MyTinyTemplate) rewrite(ifNode.getElseBranch(), replacer);
+            return new MyTinyIfNode(ifNode.getCondition(), thenBranch, elseBranch);
+        }
+        if (node instanceof MyTinyForeachNode foreach) {
+            var children = (MyTinyTemplate) rewrite(foreach.getChildren(), replacer);
+            return new MyTinyForeachNode(foreach.getLoopVar(), foreach.getCollectionName(), children, foreach.isParallel());
+        }
+        if (node instanceof MyTinyCacheNode cacheNode) {
+            var children = (MyTinyTemplate) rewrite(cacheNode.getChildren(), replacer);
+            return new MyTinyCacheNode(cacheNode.getKey(), cacheNode.getTtlSeconds(), children);
+        }
+        if (node instanceof MyTinyBlockNode block) {
+            return new MyTinyBlockNode(block.getName(), (MyTinyTemplate) rewrite(block.getChildren(), replacer));
+        }
+        return node;
+    }
+}
@@ -0,0 +1,161 @@
+package de.dmitrij.patuk.template;
+
+import de.dmitrij.patuk.template.nodes.MyTinyCacheNode;
+import de.dmitrij.patuk.template.nodes.MyTinyForeachNode;
+import de.dmitrij.patuk.template.nodes.MyTinyIfNode;
+import de.dmitrij.patuk.template.nodes.MyTinyNotNode;
+import de.dmitrij.patuk.template.nodes.MyTinyTemplate;
+import de.dmitrij.patuk.template.nodes.MyTinyTemplateNode;
+import de.dmitrij.patuk.template.nodes.MyTinyTextNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//Runs once after parsing and leaves a smaller tree for rendering:
+//Text("<ul>\n    ") Text("<li>")            -> Text("<ul>\n<li>")   adjacent texts merged, whitespace collapsed
+//If(x) Then() Else()                        -> dropped              nothing to render either way
+//If(x) Then(Text("a")) Else()               -> If(x) Then(Text("a"))
+//If(x) Then() Else(Text("b"))               -> If(not x) Then(Text("b"))
+//Collapsing whitespace is optional, a run of whitespace becomes one newline or one space,
+//which the browser renders the same. Inside <pre>, <textarea> and <script> the whitespace matters, so we keep it.
+public class MyTinyTemplateOptimizer {
+    private static final String[] PRESERVING_TAGS = {"pre", "textarea", "script"};
+
+    private final boolean collapseWhitespace;
+
+    public MyTinyTemplateOptimizer(boolean collapseWhitespace) {
+        this.collapseWhitespace = collapseWhitespace;
+    }
+
+    public MyTinyTemplate optimize(MyTinyTemplate template) {
+        return optimizeTemplate(template, new State());
+    }
+
+    private MyTinyTemplate optimizeTemplate(MyTinyTemplate template, State state) {
+        List<MyTinyTemplateNode> nodes = new ArrayList<>(template.getNodes().size());
+        StringBuilder pendingText = null;
+        for (var node : template.getNodes()) {
+            if (node instanceof MyTinyTextNode text) {
+                if (pendingText == null) {
+                    pendingText = new StringBuilder();
+                }
+                pendingText.append(text.getText());
+                continue;
+            }
+            if (pendingText != null) {
+                addText(nodes, pendingText, state);
+                pendingText = null;
+            }
+            var optimized = optimizeNode(node, state);
+            if (optimized != null) {
+                nodes.add(optimized);
+            }
+        }
+        if (pendingText != null) {
+            addText(nodes, pendingText, state);
+        }
+        return new MyTinyTemplate(nodes);
+    }
+
+    //returns null when the node renders nothing at all
+    private MyTinyTemplateNode optimizeNode(MyTinyTemplateNode node, State state) {
+        if (node instanceof MyTinyIfNode ifNode) {
+            var thenBranch = optimizeTemplate(ifNode.getThenBranch(), state);
+            var elseBranch = ifNode.getElseBranch() == null ? null : optimizeTemplate(ifNode.getElseBranch(), state);
+            if (elseBranch != null && elseBranch.getNodes().isEmpty()) {
+                elseBranch = null;
+            }
+            if (thenBranch.getNodes().isEmpty() && elseBranch == null) {
+                return null;
+            }
+            if (thenBranch.getNodes().isEmpty()) {
+                //{{ if x }}{{ else }}y{{ endif }} is {{ if not x }}y{{ endif }}
+                return new MyTinyIfNode(new MyTinyNotNode(ifNode.getCondition()), elseBranch, null);
+            }
+            return new MyTinyIfNode(ifNode.getCondition(), thenBranch, elseBranch);
+        }
+        if (node instanceof MyTinyForeachNode foreach) {
+            var children = optimizeTemplate(foreach.getChildren(), state);
+            return new MyTinyForeachNode(foreach.getLoopVar(), foreach.getCollectionName(), children, foreach.isParallel());
+        }
+        if (node instanceof MyTinyCacheNode cacheNode) {
+            var children = optimizeTemplate(cacheNode.getChildren(), state);
+            if (children.getNodes().isEmpty()) {
+                return null;
+            }
+            return new MyTinyCacheNode(cacheNode.getKey(), cacheNode.getTtlSeconds(), children);
+        }
+        if (node instanceof MyTinyTemplate template) {
+            return optimizeTemplate(template, state);
+        }
+        return node;
+    }
+
+    private void addText(List<MyTinyTemplateNode> nodes, StringBuilder text, State state) {
+        var result = collapseWhitespace ? collapse(text, state) : text.toString();
+        if (!result.isEmpty()) {
+            nodes.add(new MyTinyTextNode(result));
+        }
+    }
+
+    private String collapse(CharSequence text, State state) {
+        var sb = new StringBuilder(text.length());
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (state.preservedTag != null) {
+                //we copy everything until the preserving element is closed
+                if (c == '<' && startsTag(text, i + 1, "/" + state.preservedTag)) {
+                    state.preservedTag = null;
+                }
+                sb.append(c);
+                i++;
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                boolean newline = false;
+                while (i < length && Character.isWhitespace(text.charAt(i))) {
+                    newline |= text.charAt(i) == '\n';
+                    i++;
+                }
+                sb.append(newline ? '\n' : ' ');
+                continue;
+            }
+            if (c == '<') {
+                for (var tag : PRESERVING_TAGS) {
+                    if (startsTag(text, i + 1, tag)) {
+                        state.preservedTag = tag;
+                        break;
+                    }
+                }
+            }
+            sb.append(c);
+            i++;
+        }
+        return sb.toString();
+    }
+
+    //<pre>, <pre class="x"> and </pre> but not <prefix>
+    private static boolean startsTag(CharSequence text, int from, String tag) {
+        int end = from + tag.length();
+        if (end > text.length()) {
+            return false;
+        }
+        for (int i = 0; i < tag.length(); i++) {
+            if (Character.toLowerCase(text.charAt(from + i)) != tag.charAt(i)) {
+                return false;
+            }
+        }
+        if (end == text.length()) {
+            return true;
+        }
+        char next = text.charAt(end);
+        return next == '>' || next == '/' || Character.isWhitespace(next);
+    }
+
+    //the preserving element can be opened in one text node and closed in a later one
+    private static final class State {
+        String preservedTag;
+    }
+}
@@ -2,34 +2,55 @@ package de.dmitrij.patuk.template;
 
 import de.dmitrij.patuk.template.token.MyTinyToken;
 import de.dmitrij.patuk.template.token.MyTinyTokenType;
+import de.dmitrij.patuk.template.token.MyTinyTokens;
 
 import java.util.List;
+import java.util.function.IntFunction;
 
 public class MyTinyTokenStream {
-    private final List<MyTinyToken> tokens;
+    private final IntFunction<MyTinyToken> tokens;
+    private final int size;
     private int position = 0;
+    //the parser mostly peeks at a token and then takes it, so we keep the last one we created
+    private int cachedIndex = -1;
+    private MyTinyToken cachedToken;
 
     public MyTinyTokenStream(List<MyTinyToken> tokens) {
-        this.tokens = tokens;
+        this.tokens = tokens::get;
+        this.size = tokens.size();
+    }
+
+    //tokens from MyTinyTokenizer.scan are created while the parser walks over them
+    public MyTinyTokenStream(MyTinyTokens tokens) {
+        this.tokens = tokens::get;
+        this.size = tokens.size();
     }
 
     MyTinyToken peek() {
         //we get the current position is is now the next token
-        return position < tokens.size() ? tokens.get(position) : null;
+        return position < size ? get(position) : null;
     }
 
     MyTinyToken peekNext() {
         //we get the next position
-        return position + 1 < tokens.size() ? tokens.get(position + 1) : null;
+        return position + 1 < size ? get(position + 1) : null;
     }
 
     MyTinyToken next() {
         //we get the current position and increment position to the next
-        return position < tokens.size() ? tokens.get(position++) : null;
+        return position < size ? get(position++) : null;
     }
 
     boolean match(MyTinyTokenType type) {
         if (peek() != null && peek().getType() == type) { next(); return true; }
         return false;
     }
+
+    private MyTinyToken get(int index) {
+        if (index != cachedIndex) {
+            cachedToken = tokens.apply(index);
+            cachedIndex = index;
+        }
+        return cachedToken;
+    }
 }
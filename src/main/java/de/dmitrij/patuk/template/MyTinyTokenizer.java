@@ -2,86 +2,114 @@ package de.dmitrij.patuk.template;
 
 import de.dmitrij.patuk.template.token.MyTinyToken;
 import de.dmitrij.patuk.template.token.MyTinyTokenType;
+import de.dmitrij.patuk.template.token.MyTinyTokens;
 
-import java.util.ArrayList;
 import java.util.List;
 
-// we are moving through the input character by character with input.startsWith(String, from)
-// we increment the from with each step accordingly
+// we are moving through the input character by character
 // we are eather inside an expression or outside of it.
-// if we are outside than we have text, we need to append to buffer and move to next token.
-// if we enter an expression than we need to flush the buffer into a text token and create a LBRACE token
+// if we are outside than we have text, we remember where it started and move to next token.
+// if we enter an expression than we need to flush the pending text into a text token and create a LBRACE token
 // === now we can have eather a character/letter, a DOT or a COLON
 // === character or letter can be an Identifier or e Keyword
-// if we reach a character we need a new buffer for the identifier/keyword, we loop trough it appending as long as we have characters, letters or underscore
+// if we reach a character we loop trough the identifier/keyword as long as we have characters, letters or underscore
 // on completion of the loop we have a keyword or a identifier, we check accordingly and create the token
 // === we go to next main iteration
 // now we can have a TEXT LBRACE, RBRACE, DOT, COLON or identifier/keyword
-// we loop appending to the main buffer
+// everything else extends the pending text
 // if we reach the RBRACE we create it and exit expression
-// last step is to append what ever was left in the buffer as a text token
+// last step is to add what ever text was left as a text token
+// tokens are only offsets into the input, see MyTinyTokens
 
 public class MyTinyTokenizer {
+    //kept for the parser tests and tools, the tokens are equal to the ones scan produces
     public List<MyTinyToken> tokenize(String input) {
-        List<MyTinyToken> tokens = new ArrayList<>();
-        StringBuilder textBuffer = new StringBuilder();
+        return scan(input).toList();
+    }
+
+    //instead of a buffer we only remember where the current text started,
+    //every token is stored as its type and its offsets into the input
+    public MyTinyTokens scan(String input) {
+        int length = input.length();
+        //a rough guess, templates are mostly text with a token every few characters
+        var tokens = new MyTinyTokens(input, length / 8);
+        //-1 while there is no pending text
+        int textStart = -1;
         boolean inExpr = false;
         int i = 0;
 
-        while (i < input.length()) {
-            if (input.startsWith("{{", i)) {
+        while (i < length) {
+            char c = input.charAt(i);
+            if (c == '{' && i + 1 < length && input.charAt(i + 1) == '{') {
                 //we need to flush the text that was before the "{{"
-                if (textBuffer.length() > 0) {
-                    tokens.add(new MyTinyToken(textBuffer.toString(), MyTinyTokenType.TEXT));
-                    textBuffer.setLength(0);
+                if (textStart >= 0) {
+                    tokens.add(MyTinyTokenType.TEXT, textStart, i);
+                    textStart = -1;
                 }
-                tokens.add(new MyTinyToken("{{", MyTinyTokenType.LBRACE2));
+                tokens.add(MyTinyTokenType.LBRACE2, i, i + 2);
                 //we are now inside an expression
                 inExpr = true;
                 i += 2;
-            } else if (input.startsWith("}}", i)) {
-                textBuffer.setLength(0);
-                tokens.add(new MyTinyToken("}}", MyTinyTokenType.RBRACE2));
+            } else if (c == '}' && i + 1 < length && input.charAt(i + 1) == '}') {
+                textStart = -1;
+                tokens.add(MyTinyTokenType.RBRACE2, i, i + 2);
                 //we have exited the expression
                 inExpr = false;
                 i += 2;
-            } else if (inExpr && Character.isLetterOrDigit(input.charAt(i))) {
-                textBuffer.setLength(0);
-                //we create its own buffer for the expression
-                StringBuilder identBuf = new StringBuilder();
-                //we accept only letters, digits and lowercase inside expression
-                while (i < input.length() &&
-                        (Character.isLetterOrDigit(input.charAt(i)) || input.charAt(i) == '_')) {
-                    identBuf.append(input.charAt(i++));
-                }
-                //we have reached an illegal char so we flush and check if the buffer is an identifier or a keyword
-                String ident = identBuf.toString();
-                if (ident.equals("foreach") || ident.equals("endforeach") || ident.equals("if") || ident.equals("endif")) {
-                    tokens.add(new MyTinyToken(ident, MyTinyTokenType.KEYWORD));
-                } else {
-                    tokens.add(new MyTinyToken(ident, MyTinyTokenType.IDENTIFIER));
+            } else if (inExpr && Character.isLetterOrDigit(c)) {
+                //whitespace inside an expression is dropped
+                textStart = -1;
+                int start = i++;
+                //we accept letters, digits and underscores inside an identifier
+                while (i < length && (Character.isLetterOrDigit(input.charAt(i)) || input.charAt(i) == '_')) {
+                    i++;
                 }
-                //since we don`t increment we will check on next iteration the illegal character, it can be a dot or colon
-            } else if (inExpr && input.charAt(i) == '.') {
-                tokens.add(new MyTinyToken(".", MyTinyTokenType.DOT));
+                tokens.add(isKeyword(input, start, i) ? MyTinyTokenType.KEYWORD : MyTinyTokenType.IDENTIFIER, start, i);
+            } else if (inExpr && c == '.') {
+                tokens.add(MyTinyTokenType.DOT, i, i + 1);
                 i++;
-
-            } else if (inExpr && input.charAt(i) == ':') {
-                tokens.add(new MyTinyToken(":", MyTinyTokenType.COLON));
+            } else if (inExpr && c == ':') {
+                tokens.add(MyTinyTokenType.COLON, i, i + 1);
                 i++;
+            } else if (inExpr && c == '"') {
+                //a string runs to the next quote, there is no escaping
+                textStart = -1;
+                int end = input.indexOf('"', i + 1);
+                if (end < 0) {
+                    throw new RuntimeException("Unterminated string at position " + i);
+                }
+                tokens.add(MyTinyTokenType.STRING, i + 1, end);
+                i = end + 1;
             } else {
-                // we have not reached any important character so we just increment
-                textBuffer.append(input.charAt(i++));
+                // we have not reached any important character so the text just gets longer
+                if (textStart < 0) {
+                    textStart = i;
+                }
+                i++;
             }
         }
-        //we have reached the end and if there is still something in the buffer it is just text
-        if (textBuffer.length() > 0) {
-            tokens.add(new MyTinyToken(textBuffer.toString(), MyTinyTokenType.TEXT));
+        //we have reached the end and if there is still something pending it is just text
+        if (textStart >= 0) {
+            tokens.add(MyTinyTokenType.TEXT, textStart, length);
         }
-
         return tokens;
     }
 
+    //the length and the first char pick the only keyword it can be, so most identifiers are rejected
+    //without comparing a single string
+    private static boolean isKeyword(String input, int start, int end) {
+        return switch (end - start) {
+            case 2 -> input.startsWith("if", start) || input.startsWith("or", start);
+            case 3 -> input.startsWith("not", start) || input.startsWith("and", start) || input.startsWith("raw", start);
+            case 4 -> input.startsWith("else", start);
+            case 5 -> input.startsWith("endif", start) || input.startsWith("cache", start) || input.startsWith("block", start);
+            case 7 -> input.startsWith("foreach", start) || input.startsWith("include", start) || input.startsWith("extends", start);
+            case 8 -> input.startsWith("parallel", start) || input.startsWith("endcache", start) || input.startsWith("endblock", start);
+            case 10 -> input.startsWith("endforeach", start);
+            default -> false;
+        };
+    }
+
     public String tokensToString(List<MyTinyToken> tokens) {
         StringBuilder sb = new StringBuilder();
         for (MyTinyToken t : tokens) {
@@ -0,0 +1,64 @@
+package de.dmitrij.patuk.template;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+//Decides if a value counts as true in {{ if value }}:
+//null                      -> false
+//Boolean                   -> its value
+//numbers                   -> false for 0 and NaN
+//CharSequence              -> false when empty or "false"
+//Collection, Map, arrays   -> false when empty
+//Optional                  -> false when empty, otherwise the truthiness of its value
+//everything else           -> true
+//We look at the value itself, so nothing is turned into a string on the way.
+public final class MyTinyTruthiness {
+    private MyTinyTruthiness() {
+    }
+
+    public static boolean isTruthy(Object value) {
+        if (value == null) {
+            return false;
+        }
+        if (value instanceof Boolean bool) {
+            return bool;
+        }
+        if (value instanceof Number number) {
+            return isTruthy(number);
+        }
+        if (value instanceof CharSequence text) {
+            return !text.isEmpty() && !(text.length() == 5 && "false".contentEquals(text));
+        }
+        if (value instanceof Collection<?> collection) {
+            return !collection.isEmpty();
+        }
+        if (value instanceof Map<?, ?> map) {
+            return !map.isEmpty();
+        }
+        if (value instanceof Optional<?> optional) {
+            return optional.isPresent() && isTruthy(optional.get());
+        }
+        if (value.getClass().isArray()) {
+            return Array.getLength(value) > 0;
+        }
+        return true;
+    }
+
+    private static boolean isTruthy(Number number) {
+        if (number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte) {
+            return number.longValue() != 0;
+        }
+        if (number instanceof BigDecimal decimal) {
+            return decimal.signum() != 0;
+        }
+        if (number instanceof BigInteger integer) {
+            return integer.signum() != 0;
+        }
+        double d = number.doubleValue();
+        return d != 0 && !Double.isNaN(d);
+    }
+}
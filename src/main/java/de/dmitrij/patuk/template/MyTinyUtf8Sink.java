@@ -0,0 +1,158 @@
+package de.dmitrij.patuk.template;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+//Encodes the output to UTF-8 into a small buffer and hands full buffers to the output stream.
+//With the response body of the http exchange as stream the page goes to the socket while it is rendered.
+public class MyTinyUtf8Sink implements MyTinyRenderSink {
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int position;
+    //bytes handed to the stream so far
+    private long written;
+
+    public MyTinyUtf8Sink(OutputStream out) {
+        this(out, DEFAULT_BUFFER_SIZE);
+    }
+
+    public MyTinyUtf8Sink(OutputStream out, int bufferSize) {
+        this.out = out;
+        this.buffer = new byte[Math.max(bufferSize, 16)];
+    }
+
+    @Override
+    public void write(CharSequence text) {
+        write(text, 0, text.length());
+    }
+
+    @Override
+    public void write(CharSequence text, int start, int end) {
+        int length = end;
+        int i = start;
+        while (i < length) {
+            //fast path, plain ascii is copied char by char without any branching on the encoding
+            while (i < length && position < buffer.length) {
+                char c = text.charAt(i);
+                if (c >= 0x80) {
+                    break;
+                }
+                buffer[position++] = (byte) c;
+                i++;
+            }
+            if (i >= length) {
+                return;
+            }
+            if (position == buffer.length) {
+                flushBuffer();
+                continue;
+            }
+            i = writeNonAscii(text, i, length);
+        }
+    }
+
+    //safe runs go through the normal ascii loop, only the replacements are copied as prepared bytes
+    @Override
+    public void writeEscaped(CharSequence text) {
+        int length = text.length();
+        int start = 0;
+        int next = MyTinyHtmlEscaper.indexOfEscaped(text, 0);
+        while (next >= 0) {
+            write(text, start, next);
+            var replacement = MyTinyHtmlEscaper.encodedReplacement(text.charAt(next));
+            ensureCapacity(replacement.length);
+            System.arraycopy(replacement, 0, buffer, position, replacement.length);
+            position += replacement.length;
+            start = next + 1;
+            next = MyTinyHtmlEscaper.indexOfEscaped(text, start);
+        }
+        write(text, start, length);
+    }
+
+    //static text is already encoded, so we only copy its bytes
+    @Override
+    public void writeEncoded(String text, byte[] utf8) {
+        if (utf8.length > buffer.length - position) {
+            flushBuffer();
+            if (utf8.length > buffer.length) {
+                //bigger than the whole buffer, there is nothing to gain by copying it in pieces
+                try {
+                    out.write(utf8);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                written += utf8.length;
+                return;
+            }
+        }
+        System.arraycopy(utf8, 0, buffer, position, utf8.length);
+        position += utf8.length;
+    }
+
+    //all bytes written to this sink, including the ones still in the buffer
+    public long getWritten() {
+        return written + position;
+    }
+
+    //writes the buffered bytes and flushes the stream, the stream itself is not closed
+    public void flush() {
+        flushBuffer();
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int writeNonAscii(CharSequence text, int i, int length) {
+        char c = text.charAt(i);
+        if (c < 0x800) {
+            ensureCapacity(2);
+            buffer[position++] = (byte) (0xC0 | (c >> 6));
+            buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            return i + 1;
+        }
+        if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+            int codePoint = Character.toCodePoint(c, text.charAt(i + 1));
+            ensureCapacity(4);
+            buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+            buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+            buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            return i + 2;
+        }
+        if (Character.isSurrogate(c)) {
+            //a broken surrogate pair, the same replacement String.getBytes would use
+            ensureCapacity(1);
+            buffer[position++] = '?';
+            return i + 1;
+        }
+        ensureCapacity(3);
+        buffer[position++] = (byte) (0xE0 | (c >> 12));
+        buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+        buffer[position++] = (byte) (0x80 | (c & 0x3F));
+        return i + 1;
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (position + bytes > buffer.length) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() {
+        if (position == 0) {
+            return;
+        }
+        try {
+            out.write(buffer, 0, position);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        written += position;
+        position = 0;
+    }
+}
@@ -0,0 +1,52 @@
+package de.dmitrij.patuk.template.nodes;
+
+import de.dmitrij.patuk.template.MyTinyContext;
+import de.dmitrij.patuk.template.MyTinyRenderSink;
+
+import java.util.Objects;
+
+//{{ if app.isPremium and app.tags }}
+public class MyTinyAndNode implements MyTinyConditionNode {
+    MyTinyConditionNode left;
+    MyTinyConditionNode right;
+
+    public MyTinyAndNode(MyTinyConditionNode left, MyTinyConditionNode right) {
+        this.left = left;
+        this.right = right;
+    }
+
+    public MyTinyConditionNode getLeft() {
+        return left;
+    }
+
+    public MyTinyConditionNode getRight() {
+        return right;
+    }
+
+    //the right side is only looked at when the left one is true
+    @Override
+    public boolean test(MyTinyContext context) {
+        return left.test(context) && right.test(context);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof MyTinyAndNode that)) return false;
+        return Objects.equals(left, that.left) && Objects.equals(right, that.right);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(left, right);
+    }
+
+    @Override
+    public void render(MyTinyContext context, MyTinyRenderSink sink) {
+        sink.write(String.valueOf(test(context)));
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        return "\n" + indent + "And(" + left.prettyPrint("") + ", " + right.prettyPrint("") + ")";
+    }
+}
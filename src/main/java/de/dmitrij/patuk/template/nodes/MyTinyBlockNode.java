@@ -0,0 +1,47 @@
+package de.dmitrij.patuk.template.nodes;
+
+import de.dmitrij.patuk.template.MyTinyContext;
+import de.dmitrij.patuk.template.MyTinyRenderSink;
+
+import java.util.Objects;
+
+//{{ block content }} ... {{ endblock }}
+//in a layout the children are the default, a view extending the layout can replace them with its own block
+public class MyTinyBlockNode implements MyTinyTemplateNode {
+    String name;
+    MyTinyTemplate children;
+
+    public MyTinyBlockNode(String name, MyTinyTemplate children) {
+        this.name = name;
+        this.children = children;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public MyTinyTemplate getChildren() {
+        return children;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof MyTinyBlockNode that)) return false;
+        return Objects.equals(name, that.name) && Objects.equals(children, that.children);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, children);
+    }
+
+    @Override
+    public void render(MyTinyContext context, MyTinyRenderSink sink) {
+        children.render(context, sink);
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        return "\n" + indent + "Block(" + name + ")" + children.prettyPrint(indent + "  ");
+    }
+}
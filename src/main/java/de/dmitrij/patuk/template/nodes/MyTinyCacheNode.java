@@ -0,0 +1,83 @@
+package de.dmitrij.patuk.template.nodes;
+
+import de.dmitrij.patuk.template.MyTinyContext;
+import de.dmitrij.patuk.template.MyTinyFragmentCache;
+import de.dmitrij.patuk.template.MyTinyRenderSink;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+
+//{{ cache list.id 60 }} ... {{ endcache }}
+//renders its children once per value of the key and reuses the output for 60 seconds
+public class MyTinyCacheNode implements MyTinyTemplateNode {
+    MyTinyExpressionNode key;
+    long ttlSeconds;
+    MyTinyTemplate children;
+    //set by MyTinyFragmentCache.bind when the view is loaded
+    private MyTinyFragmentCache cache;
+    private String viewName;
+    private int blockId;
+
+    public MyTinyCacheNode(MyTinyExpressionNode key, long ttlSeconds, MyTinyTemplate children) {
+        this.key = key;
+        this.ttlSeconds = ttlSeconds;
+        this.children = children;
+    }
+
+    public MyTinyExpressionNode getKey() {
+        return key;
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public MyTinyTemplate getChildren() {
+        return children;
+    }
+
+    public int getBlockId() {
+        return blockId;
+    }
+
+    public void bind(MyTinyFragmentCache cache, String viewName, int blockId) {
+        this.cache = cache;
+        this.viewName = viewName;
+        this.blockId = blockId;
+    }
+
+    @Override
+    public void render(MyTinyContext context, MyTinyRenderSink sink) {
+        if (cache == null) {
+            children.render(context, sink);
+            return;
+        }
+        cache.render(viewName, blockId, context.resolve(key.getPropertyPath()), ttlSeconds, sink,
+                part -> children.render(context, part));
+    }
+
+    //the compiled templates bring their own key value and body
+    public void render(Object keyValue, MyTinyRenderSink sink, Consumer<MyTinyRenderSink> body) {
+        if (cache == null) {
+            body.accept(sink);
+            return;
+        }
+        cache.render(viewName, blockId, keyValue, ttlSeconds, sink, body);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof MyTinyCacheNode that)) return false;
+        return ttlSeconds == that.ttlSeconds && Objects.equals(key, that.key) && Objects.equals(children, that.children);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(key, ttlSeconds, children);
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        return "\n" + indent + "Cache(" + key.prettyPrint("") + " for " + ttlSeconds + "s)" + children.prettyPrint(indent + "  ");
+    }
+}
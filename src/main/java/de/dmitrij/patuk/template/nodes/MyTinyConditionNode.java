@@ -0,0 +1,9 @@
+package de.dmitrij.patuk.template.nodes;
+
+import de.dmitrij.patuk.template.MyTinyContext;
+
+//Everything that can decide an if: a property path or not/and/or of other conditions.
+//The result is a plain boolean, so deciding a branch never builds a string.
+public interface MyTinyConditionNode extends MyTinyTemplateNode {
+    boolean test(MyTinyContext context);
+}
@@ -1,39 +1,69 @@
 package de.dmitrij.patuk.template.nodes;
 
 import de.dmitrij.patuk.template.MyTinyContext;
+import de.dmitrij.patuk.template.MyTinyRenderSink;
+import de.dmitrij.patuk.template.MyTinyTruthiness;
 
 import java.util.Objects;
 
-public class MyTinyExpressionNode implements MyTinyTemplateNode {
+public class MyTinyExpressionNode implements MyTinyConditionNode {
     MyTinyPropertyPath propertyPath;
+    //values are html escaped when they are written, a raw expression writes them as they are
+    private final boolean raw;
 
     public MyTinyExpressionNode(MyTinyPropertyPath propertyPath) {
+        this(propertyPath, false);
+    }
+
+    public MyTinyExpressionNode(MyTinyPropertyPath propertyPath, boolean raw) {
         this.propertyPath = propertyPath;
+        this.raw = raw;
     }
 
     public MyTinyPropertyPath getPropertyPath() {
         return propertyPath;
     }
 
+    public boolean isRaw() {
+        return raw;
+    }
+
+    public MyTinyExpressionNode asRaw() {
+        return new MyTinyExpressionNode(propertyPath, true);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (!(o instanceof MyTinyExpressionNode that)) return false;
-        return Objects.equals(propertyPath, that.propertyPath);
+        return raw == that.raw && Objects.equals(propertyPath, that.propertyPath);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hashCode(propertyPath);
+        return Objects.hash(propertyPath, raw);
     }
 
     @Override
-    public String render(MyTinyContext context) {
+    public void render(MyTinyContext context, MyTinyRenderSink sink) {
         Object value = context.resolve(propertyPath);
-        return value != null ? value.toString() : "";
+        if (value == null) {
+            return;
+        }
+        if (raw) {
+            sink.write(value.toString());
+        } else {
+            sink.writeEscaped(value.toString());
+        }
+    }
+
+    //as a condition we look at the resolved value, not at its text
+    @Override
+    public boolean test(MyTinyContext context) {
+        return MyTinyTruthiness.isTruthy(context.resolve(propertyPath));
     }
 
     @Override
     public String prettyPrint(String indent) {
-        return "\n" + indent + "Expression(" + propertyPath.prettyPrint("") + ")";
+        return "\n" + indent + (raw ? "RawExpression(" : "Expression(") + propertyPath.prettyPrint("") + ")";
     }
 }
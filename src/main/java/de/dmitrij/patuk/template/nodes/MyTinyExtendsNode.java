@@ -0,0 +1,41 @@
+package de.dmitrij.patuk.template.nodes;
+
+import de.dmitrij.patuk.template.MyTinyContext;
+import de.dmitrij.patuk.template.MyTinyRenderSink;
+
+import java.util.Objects;
+
+//{{ extends "app/layout" }}
+//the view is rendered as the layout, with the blocks of the view put in place of the blocks of the layout
+public class MyTinyExtendsNode implements MyTinyTemplateNode {
+    String viewName;
+
+    public MyTinyExtendsNode(String viewName) {
+        this.viewName = viewName;
+    }
+
+    public String getViewName() {
+        return viewName;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof MyTinyExtendsNode that)) return false;
+        return Objects.equals(viewName, that.viewName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(viewName);
+    }
+
+    @Override
+    public void render(MyTinyContext context, MyTinyRenderSink sink) {
+        throw new RuntimeException("Layout " + viewName + " was not linked");
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        return "\n" + indent + "Extends(" + viewName + ")";
+    }
+}
@@ -1,6 +1,7 @@
 package de.dmitrij.patuk.template.nodes;
 
 import de.dmitrij.patuk.template.MyTinyContext;
+import de.dmitrij.patuk.template.MyTinyRenderSink;
 
 import java.util.Objects;
 
@@ -8,11 +9,19 @@ public class MyTinyForeachNode implements MyTinyTemplateNode {
     MyTinyIdentifier loopVar;
     MyTinyExpressionNode collectionName;
     MyTinyTemplate children;
+    //{{ foreach item : items parallel }} renders the body on several threads
+    boolean parallel;
 
     public MyTinyForeachNode(MyTinyIdentifier loopVar, MyTinyExpressionNode collectionName, MyTinyTemplate children) {
+        this(loopVar, collectionName, children, false);
+    }
+
+    public MyTinyForeachNode(MyTinyIdentifier loopVar, MyTinyExpressionNode collectionName, MyTinyTemplate children,
+                             boolean parallel) {
         this.loopVar = loopVar;
         this.collectionName = collectionName;
         this.children = children;
+        this.parallel = parallel;
     }
 
     public MyTinyIdentifier getLoopVar() {
@@ -27,36 +36,53 @@ public class MyTinyForeachNode implements MyTinyTemplateNode {
         return children;
     }
 
+    public boolean isParallel() {
+        return parallel;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (!(o instanceof MyTinyForeachNode that)) return false;
-        return Objects.equals(loopVar, that.loopVar) && Objects.equals(collectionName, that.collectionName) && Objects.equals(children, that.children);
+        return Objects.equals(loopVar, that.loopVar) && Objects.equals(collectionName, that.collectionName) && Objects.equals(children, that.children) && parallel == that.parallel;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(loopVar, collectionName, children);
+        return Objects.hash(loopVar, collectionName, children, parallel);
     }
 
     @Override
-    public String render(MyTinyContext context) {
+    public void render(MyTinyContext context, MyTinyRenderSink sink) {
         Object col = context.resolve(collectionName.getPropertyPath());
-        if (!(col instanceof Iterable<?> iterable)) return "";
-        StringBuilder sb = new StringBuilder();
-        for (Object item : iterable) {
-            context.pushScope();
-            context.set(loopVar.getName(), item);
-            sb.append(children.render(context));
-            context.popScope();
+        if (!(col instanceof Iterable<?> iterable)) return;
+        //the loop variable gets its slot once, every item only overwrites the value
+        int slot = context.push(loopVar.getName(), null);
+        try {
+            var parallelForeach = context.getParallelForeach();
+            if (parallelForeach != null && parallelForeach.shouldSplit(parallel, iterable)) {
+                parallelForeach.render(iterable, sink, () -> {
+                    var fork = context.fork();
+                    return (item, chunkSink) -> {
+                        fork.set(slot, item);
+                        children.render(fork, chunkSink);
+                    };
+                });
+                return;
+            }
+            for (Object item : iterable) {
+                context.set(slot, item);
+                children.render(context, sink);
+            }
+        } finally {
+            context.pop();
         }
-        return sb.toString();
     }
 
     @Override
     public String prettyPrint(String indent) {
         StringBuilder sb = new StringBuilder();
         sb.append("\n" + indent);
-        sb.append(indent).append("Foreach (").append(loopVar.prettyPrint("")).append(" in ").append(collectionName.prettyPrint("")).append(")\n");
+        sb.append(indent).append("Foreach (").append(loopVar.prettyPrint("")).append(" in ").append(collectionName.prettyPrint("")).append(parallel ? " parallel" : "").append(")\n");
         sb.append(children.prettyPrint(indent + "  "));
         return sb.toString();
     }
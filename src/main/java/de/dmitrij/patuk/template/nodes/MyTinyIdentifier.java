@@ -1,11 +1,18 @@
 package de.dmitrij.patuk.template.nodes;
 
 import de.dmitrij.patuk.template.MyTinyContext;
+import de.dmitrij.patuk.template.MyTinyRenderSink;
 
 import java.util.Objects;
 
 public class MyTinyIdentifier implements MyTinyTemplateNode{
+    //not resolved yet, the context looks the name up
+    public static final int UNRESOLVED = -1;
+    //the resolver knows no variable with this name, it is always null
+    public static final int UNDEFINED = -2;
+
     private String name;
+    private int slot = UNRESOLVED;
 
     public MyTinyIdentifier(String name) {
         this.name = name;
@@ -15,6 +22,14 @@ public class MyTinyIdentifier implements MyTinyTemplateNode{
         return name;
     }
 
+    public int getSlot() {
+        return slot;
+    }
+
+    public void bindSlot(int slot) {
+        this.slot = slot;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (!(o instanceof MyTinyIdentifier that)) return false;
@@ -27,8 +42,7 @@ public class MyTinyIdentifier implements MyTinyTemplateNode{
     }
 
     @Override
-    public String render(MyTinyContext context) {
-        return "";
+    public void render(MyTinyContext context, MyTinyRenderSink sink) {
     }
 
     @Override
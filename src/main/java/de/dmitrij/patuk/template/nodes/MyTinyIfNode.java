@@ -1,19 +1,22 @@
 package de.dmitrij.patuk.template.nodes;
 
 import de.dmitrij.patuk.template.MyTinyContext;
+import de.dmitrij.patuk.template.MyTinyRenderSink;
+
+import java.util.Objects;
 
 public class MyTinyIfNode implements MyTinyTemplateNode {
-    MyTinyExpressionNode condition;
+    MyTinyConditionNode condition;
     MyTinyTemplate thenBranch;
     MyTinyTemplate elseBranch;
 
-    public MyTinyIfNode(MyTinyExpressionNode condition, MyTinyTemplate thenBranch, MyTinyTemplate elseBranch) {
+    public MyTinyIfNode(MyTinyConditionNode condition, MyTinyTemplate thenBranch, MyTinyTemplate elseBranch) {
         this.condition = condition;
         this.thenBranch = thenBranch;
         this.elseBranch = elseBranch;
     }
 
-    public MyTinyExpressionNode getCondition() {
+    public MyTinyConditionNode getCondition() {
         return condition;
     }
 
@@ -26,17 +29,24 @@ public class MyTinyIfNode implements MyTinyTemplateNode {
     }
 
     @Override
-    public String render(MyTinyContext context) {
-        Object cond = condition.render(context);
-        boolean truthy = cond != null && !cond.toString().isEmpty() && !cond.equals("false");
-        if (truthy) {
-            return thenBranch.render(context);
+    public void render(MyTinyContext context, MyTinyRenderSink sink) {
+        if (condition.test(context)) {
+            thenBranch.render(context, sink);
         } else if (elseBranch != null) {
-            return elseBranch.render(context);
+            elseBranch.render(context, sink);
         }
-        return "";
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof MyTinyIfNode that)) return false;
+        return Objects.equals(condition, that.condition) && Objects.equals(thenBranch, that.thenBranch) && Objects.equals(elseBranch, that.elseBranch);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(condition, thenBranch, elseBranch);
+    }
 
     @Override
     public String prettyPrint(String indent) {
@@ -0,0 +1,41 @@
+package de.dmitrij.patuk.template.nodes;
+
+import de.dmitrij.patuk.template.MyTinyContext;
+import de.dmitrij.patuk.template.MyTinyRenderSink;
+
+import java.util.Objects;
+
+//{{ include "app/app-item" }}
+//MyTinyTemplateLinker replaces it with the parsed partial when the view is loaded
+public class MyTinyIncludeNode implements MyTinyTemplateNode {
+    String viewName;
+
+    public MyTinyIncludeNode(String viewName) {
+        this.viewName = viewName;
+    }
+
+    public String getViewName() {
+        return viewName;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof MyTinyIncludeNode that)) return false;
+        return Objects.equals(viewName, that.viewName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(viewName);
+    }
+
+    @Override
+    public void render(MyTinyContext context, MyTinyRenderSink sink) {
+        throw new RuntimeException("Include of " + viewName + " was not linked");
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        return "\n" + indent + "Include(" + viewName + ")";
+    }
+}
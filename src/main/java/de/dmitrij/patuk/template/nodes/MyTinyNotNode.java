@@ -0,0 +1,45 @@
+package de.dmitrij.patuk.template.nodes;
+
+import de.dmitrij.patuk.template.MyTinyContext;
+import de.dmitrij.patuk.template.MyTinyRenderSink;
+
+import java.util.Objects;
+
+//{{ if not app.isPremium }}
+public class MyTinyNotNode implements MyTinyConditionNode {
+    MyTinyConditionNode operand;
+
+    public MyTinyNotNode(MyTinyConditionNode operand) {
+        this.operand = operand;
+    }
+
+    public MyTinyConditionNode getOperand() {
+        return operand;
+    }
+
+    @Override
+    public boolean test(MyTinyContext context) {
+        return !operand.test(context);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof MyTinyNotNode that)) return false;
+        return Objects.equals(operand, that.operand);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(operand);
+    }
+
+    @Override
+    public void render(MyTinyContext context, MyTinyRenderSink sink) {
+        sink.write(String.valueOf(test(context)));
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        return "\n" + indent + "Not(" + operand.prettyPrint("") + ")";
+    }
+}
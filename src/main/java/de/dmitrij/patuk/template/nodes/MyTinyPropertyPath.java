@@ -1,6 +1,7 @@
 package de.dmitrij.patuk.template.nodes;
 
 import de.dmitrij.patuk.template.MyTinyContext;
+import de.dmitrij.patuk.template.MyTinyRenderSink;
 
 import java.util.List;
 import java.util.Objects;
@@ -28,8 +29,7 @@ public class MyTinyPropertyPath implements MyTinyTemplateNode {
     }
 
     @Override
-    public String render(MyTinyContext context) {
-        return "";
+    public void render(MyTinyContext context, MyTinyRenderSink sink) {
     }
 
     @Override
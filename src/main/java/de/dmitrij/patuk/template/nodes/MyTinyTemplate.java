@@ -1,12 +1,26 @@
 package de.dmitrij.patuk.template.nodes;
 
+import de.dmitrij.patuk.template.MyTinyCompiledTemplate;
 import de.dmitrij.patuk.template.MyTinyContext;
+import de.dmitrij.patuk.template.MyTinyOutputEstimate;
+import de.dmitrij.patuk.template.MyTinyRenderSink;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 public class MyTinyTemplate implements MyTinyTemplateNode {
     final List<MyTinyTemplateNode> nodes;
+    //how many variable slots a render needs, 0 until the slot resolver ran
+    private int frameSize;
+    //set when the template compiler could handle this template, null means we interpret it
+    private MyTinyCompiledTemplate compiled;
+    //the views the linker put into this template, a change to one of them has to reload this template
+    private Set<String> dependencies = Set.of();
+    //how big the output of the last renders was, used to size the buffers of the next one,
+    //chars for renders into a string and utf-8 bytes for renders into a stream, they differ for non-ascii pages
+    private final MyTinyOutputEstimate charEstimate = new MyTinyOutputEstimate();
+    private final MyTinyOutputEstimate byteEstimate = new MyTinyOutputEstimate();
 
     public MyTinyTemplate(List<MyTinyTemplateNode> nodes) {
         this.nodes = nodes;
@@ -16,6 +30,38 @@ public class MyTinyTemplate implements MyTinyTemplateNode {
         return nodes;
     }
 
+    public int getFrameSize() {
+        return frameSize;
+    }
+
+    public void setFrameSize(int frameSize) {
+        this.frameSize = frameSize;
+    }
+
+    public MyTinyCompiledTemplate getCompiled() {
+        return compiled;
+    }
+
+    public void setCompiled(MyTinyCompiledTemplate compiled) {
+        this.compiled = compiled;
+    }
+
+    public Set<String> getDependencies() {
+        return dependencies;
+    }
+
+    public void setDependencies(Set<String> dependencies) {
+        this.dependencies = dependencies;
+    }
+
+    public MyTinyOutputEstimate getCharEstimate() {
+        return charEstimate;
+    }
+
+    public MyTinyOutputEstimate getByteEstimate() {
+        return byteEstimate;
+    }
+
     public void append(MyTinyTemplateNode node) {
         nodes.add(node);
     }
@@ -37,12 +83,10 @@ public class MyTinyTemplate implements MyTinyTemplateNode {
     }
 
     @Override
-    public String render(MyTinyContext context) {
-        StringBuilder sb = new StringBuilder();
+    public void render(MyTinyContext context, MyTinyRenderSink sink) {
         for (MyTinyTemplateNode node : nodes) {
-            sb.append(node.render(context));
+            node.render(context, sink);
         }
-        return sb.toString();
     }
 
     @Override
@@ -1,8 +1,18 @@
 package de.dmitrij.patuk.template.nodes;
 
 import de.dmitrij.patuk.template.MyTinyContext;
+import de.dmitrij.patuk.template.MyTinyRenderSink;
+import de.dmitrij.patuk.template.MyTinyStringSink;
 
 public interface MyTinyTemplateNode  {
-    String render(MyTinyContext context);
+    void render(MyTinyContext context, MyTinyRenderSink sink);
+
+    //convenience for tests and small snippets, pages should render into a sink
+    default String render(MyTinyContext context) {
+        var sink = new MyTinyStringSink();
+        render(context, sink);
+        return sink.toString();
+    }
+
     String prettyPrint(String indent);
 }
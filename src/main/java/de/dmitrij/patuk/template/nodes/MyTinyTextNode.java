@@ -1,19 +1,29 @@
 package de.dmitrij.patuk.template.nodes;
 
 import de.dmitrij.patuk.template.MyTinyContext;
+import de.dmitrij.patuk.template.MyTinyRenderSink;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Objects;
 
 public class MyTinyTextNode implements MyTinyTemplateNode {
-    String text;
+    final String text;
+    //the text never changes, so we encode it once instead of on every response
+    final byte[] utf8;
+
     public MyTinyTextNode(String text) {
         this.text = text;
+        this.utf8 = text.getBytes(StandardCharsets.UTF_8);
     }
 
     public String getText() {
         return text;
     }
 
+    public byte[] getUtf8() {
+        return utf8;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (!(o instanceof MyTinyTextNode that)) return false;
@@ -26,8 +36,8 @@ public class MyTinyTextNode implements MyTinyTemplateNode {
     }
 
     @Override
-    public String render(MyTinyContext context) {
-        return text;
+    public void render(MyTinyContext context, MyTinyRenderSink sink) {
+        sink.writeEncoded(text, utf8);
     }
 
     @Override
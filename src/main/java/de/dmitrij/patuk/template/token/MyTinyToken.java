@@ -3,6 +3,12 @@ package de.dmitrij.patuk.template.token;
 import java.util.Objects;
 
 public class MyTinyToken {
+    //the fixed tokens always look the same, so every template shares one instance of each
+    public static final MyTinyToken LBRACE2 = new MyTinyToken("{{", MyTinyTokenType.LBRACE2);
+    public static final MyTinyToken RBRACE2 = new MyTinyToken("}}", MyTinyTokenType.RBRACE2);
+    public static final MyTinyToken DOT = new MyTinyToken(".", MyTinyTokenType.DOT);
+    public static final MyTinyToken COLON = new MyTinyToken(":", MyTinyTokenType.COLON);
+
     private final String token;
     private final MyTinyTokenType type;
 
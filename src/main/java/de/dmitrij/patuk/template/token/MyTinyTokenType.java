@@ -8,4 +8,6 @@ public enum MyTinyTokenType {
     DOT,
     KEYWORD,
     COLON,
+    //"app/layout" inside an expression, the token is the text between the quotes
+    STRING,
 }
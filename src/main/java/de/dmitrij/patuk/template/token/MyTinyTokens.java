@@ -0,0 +1,102 @@
+package de.dmitrij.patuk.template.token;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+//All tokens of one template as offsets into the template source.
+//"Hi {{ model.name }}" is stored as
+//TEXT 0 3 | LBRACE2 3 5 | IDENTIFIER 6 11 | DOT 11 12 | IDENTIFIER 12 16 | RBRACE2 17 19
+//Nothing is copied while scanning, a token only becomes a MyTinyToken when the parser asks for it.
+public class MyTinyTokens {
+    private static final MyTinyTokenType[] TYPES = MyTinyTokenType.values();
+    private static final MyTinyToken[] KEYWORDS = {
+            new MyTinyToken("foreach", MyTinyTokenType.KEYWORD),
+            new MyTinyToken("endforeach", MyTinyTokenType.KEYWORD),
+            new MyTinyToken("if", MyTinyTokenType.KEYWORD),
+            new MyTinyToken("else", MyTinyTokenType.KEYWORD),
+            new MyTinyToken("endif", MyTinyTokenType.KEYWORD),
+            new MyTinyToken("not", MyTinyTokenType.KEYWORD),
+            new MyTinyToken("and", MyTinyTokenType.KEYWORD),
+            new MyTinyToken("or", MyTinyTokenType.KEYWORD),
+            new MyTinyToken("parallel", MyTinyTokenType.KEYWORD),
+            new MyTinyToken("cache", MyTinyTokenType.KEYWORD),
+            new MyTinyToken("endcache", MyTinyTokenType.KEYWORD),
+            new MyTinyToken("include", MyTinyTokenType.KEYWORD),
+            new MyTinyToken("extends", MyTinyTokenType.KEYWORD),
+            new MyTinyToken("block", MyTinyTokenType.KEYWORD),
+            new MyTinyToken("endblock", MyTinyTokenType.KEYWORD),
+            new MyTinyToken("raw", MyTinyTokenType.KEYWORD),
+    };
+
+    private final String source;
+    //three ints per token: type, start, end
+    private int[] data;
+    private int size;
+
+    public MyTinyTokens(String source, int capacity) {
+        this.source = source;
+        this.data = new int[Math.max(capacity, 4) * 3];
+    }
+
+    public void add(MyTinyTokenType type, int start, int end) {
+        if ((size + 1) * 3 > data.length) {
+            data = Arrays.copyOf(data, data.length * 2);
+        }
+        int offset = size * 3;
+        data[offset] = type.ordinal();
+        data[offset + 1] = start;
+        data[offset + 2] = end;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public MyTinyTokenType getType(int index) {
+        return TYPES[data[index * 3]];
+    }
+
+    public int getStart(int index) {
+        return data[index * 3 + 1];
+    }
+
+    public int getEnd(int index) {
+        return data[index * 3 + 2];
+    }
+
+    public String getText(int index) {
+        return source.substring(getStart(index), getEnd(index));
+    }
+
+    //fixed tokens and keywords are shared instances, only identifiers and texts are copied out of the source
+    public MyTinyToken get(int index) {
+        return switch (getType(index)) {
+            case LBRACE2 -> MyTinyToken.LBRACE2;
+            case RBRACE2 -> MyTinyToken.RBRACE2;
+            case DOT -> MyTinyToken.DOT;
+            case COLON -> MyTinyToken.COLON;
+            case KEYWORD -> keyword(getStart(index), getEnd(index));
+            default -> new MyTinyToken(getText(index), getType(index));
+        };
+    }
+
+    public List<MyTinyToken> toList() {
+        var tokens = new ArrayList<MyTinyToken>(size);
+        for (int i = 0; i < size; i++) {
+            tokens.add(get(i));
+        }
+        return tokens;
+    }
+
+    private MyTinyToken keyword(int start, int end) {
+        for (var keyword : KEYWORDS) {
+            var name = keyword.getToken();
+            if (name.length() == end - start && source.startsWith(name, start)) {
+                return keyword;
+            }
+        }
+        return new MyTinyToken(source.substring(start, end), MyTinyTokenType.KEYWORD);
+    }
+}
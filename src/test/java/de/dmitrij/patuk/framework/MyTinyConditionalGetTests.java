@@ -0,0 +1,50 @@
+package de.dmitrij.patuk.framework;
+
+import com.sun.net.httpserver.Headers;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MyTinyConditionalGetTests {
+    static Headers headers(String name, String value) {
+        var headers = new Headers();
+        headers.add(name, value);
+        return headers;
+    }
+
+    @Test
+    void tagsEqualBodiesEqually() {
+        var a = MyTinyConditionalGet.etag("page".getBytes(StandardCharsets.UTF_8));
+        assertEquals(a, MyTinyConditionalGet.etag("page".getBytes(StandardCharsets.UTF_8)));
+        assertNotEquals(a, MyTinyConditionalGet.etag("Page".getBytes(StandardCharsets.UTF_8)));
+        assertTrue(a.startsWith("\"") && a.endsWith("\""));
+        assertEquals("\"v1\"", MyTinyConditionalGet.quote("v1"));
+        assertEquals("W/\"v1\"", MyTinyConditionalGet.quote("W/\"v1\""));
+    }
+
+    @Test
+    void matchesIfNoneMatch() {
+        assertTrue(MyTinyConditionalGet.isNotModified(headers("If-None-Match", "\"a\", W/\"v1\""), "\"v1\"", null));
+        assertTrue(MyTinyConditionalGet.isNotModified(headers("If-None-Match", "*"), "\"v1\"", null));
+        assertFalse(MyTinyConditionalGet.isNotModified(headers("If-None-Match", "\"v0\""), "\"v1\"", null));
+        assertFalse(MyTinyConditionalGet.isNotModified(new Headers(), "\"v1\"", null));
+    }
+
+    @Test
+    void comparesIfModifiedSince() {
+        var modified = Instant.parse("2026-10-18T10:00:00Z");
+        var lastModified = MyTinyConditionalGet.httpDate(modified);
+        assertEquals("Sun, 18 Oct 2026 10:00:00 GMT", lastModified);
+        assertTrue(MyTinyConditionalGet.isNotModified(headers("If-Modified-Since", lastModified), null, lastModified));
+        var before = MyTinyConditionalGet.httpDate(modified.minusSeconds(1));
+        assertFalse(MyTinyConditionalGet.isNotModified(headers("If-Modified-Since", before), null, lastModified));
+        assertFalse(MyTinyConditionalGet.isNotModified(headers("If-Modified-Since", "yesterday"), null, lastModified));
+        //the tag decides when both are sent
+        var both = headers("If-Modified-Since", lastModified);
+        both.add("If-None-Match", "\"other\"");
+        assertFalse(MyTinyConditionalGet.isNotModified(both, "\"v1\"", lastModified));
+    }
+}
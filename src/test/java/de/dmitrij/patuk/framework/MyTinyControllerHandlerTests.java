@@ -2,8 +2,11 @@ package de.dmitrij.patuk.framework;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -20,6 +23,57 @@ class TestController {
     }
 }
 
+@MyTinyController(route = "/proto")
+@MyTinyScope(MyTinyScopeType.PROTOTYPE)
+class PrototypeController {
+    @MyTinyGet(route = "hello")
+    public String hello() {
+        return "Hello";
+    }
+}
+
+@MyTinyController(route = "/items")
+class PathVariableController {
+    @MyTinyGet(route = "{id}")
+    public String item(@MyTinyPathVariable(name = "id") int id, @MyTinyRequestParam(name = "view", defaultValue = "full") String view) {
+        return id + 1 + " " + view;
+    }
+}
+
+@MyTinyController(route = "/items")
+class WrongPathVariableController {
+    @MyTinyGet(route = "{id}")
+    public String item(@MyTinyPathVariable(name = "name") String name) {
+        return name;
+    }
+}
+
+@MyTinyController(route = "/cached")
+class CacheableController {
+    @MyTinyGet(route = "page")
+    @MyTinyCacheable(ttl = 30)
+    public String page() {
+        return "page";
+    }
+}
+
+@MyTinyController(route = "/versioned")
+class VersionedController {
+    @MyTinyGet(route = "view")
+    public MyTinyModelAndView view() {
+        return new MyTinyModelAndView("/view", "model").withVersion("v3");
+    }
+}
+
+@MyTinyController(route = "/coalesced")
+class CoalescedController {
+    @MyTinyGet(route = "page")
+    @MyTinyCoalesce
+    public String page() {
+        return "page";
+    }
+}
+
 public class MyTinyControllerHandlerTests {
     MyTinyHttpServer server;
     MyTinyClassProvider provider;
@@ -27,6 +81,10 @@ public class MyTinyControllerHandlerTests {
     MyTinyRequestParamHandler requestParamHandler;
     MyTinyViewRenderer viewRenderer;
 
+    static String body(MyTinyResponse response) {
+        return new String(response.getBytes(), StandardCharsets.UTF_8);
+    }
+
     @BeforeEach
     void setup() {
         server = mock(MyTinyHttpServer.class);
@@ -65,4 +123,72 @@ public class MyTinyControllerHandlerTests {
         handler.registerController(ControllerNoGet.class);
         verify(server, never()).bindContext(anyString(), any());
     }
+
+    @Test
+    void createsSingletonControllerOnceAtRegistration() {
+        doReturn(new TestController()).when(provider).getBeanClass(TestController.class);
+        handler.registerController(TestController.class);
+        var captor = ArgumentCaptor.forClass(MyTinyHttpServer.GetResponse.class);
+        verify(server).bindContext(eq("/test/hello"), captor.capture());
+        assertEquals("Hello", body(captor.getValue().handle(null)));
+        assertEquals("Hello", body(captor.getValue().handle(null)));
+        verify(provider, times(1)).getBeanClass(TestController.class);
+    }
+
+    @Test
+    void createsPrototypeControllerPerRequest() {
+        doReturn(new PrototypeController()).when(provider).getBeanClass(PrototypeController.class);
+        handler.registerController(PrototypeController.class);
+        verify(provider, never()).getBeanClass(PrototypeController.class);
+        var captor = ArgumentCaptor.forClass(MyTinyHttpServer.GetResponse.class);
+        verify(server).bindContext(eq("/proto/hello"), captor.capture());
+        captor.getValue().handle(null);
+        captor.getValue().handle(null);
+        verify(provider, times(2)).getBeanClass(PrototypeController.class);
+    }
+
+    @Test
+    void bindsPathVariablesAndQueryParams() {
+        handler = new MyTinyControllerHandler(server, provider, new MyTinyRequestParamHandler(), viewRenderer);
+        doReturn(new PathVariableController()).when(provider).getBeanClass(PathVariableController.class);
+        handler.registerController(PathVariableController.class);
+        var captor = ArgumentCaptor.forClass(MyTinyHttpServer.GetResponse.class);
+        verify(server).bindContext(eq("/items/{id}"), captor.capture());
+        var request = new MyTinyRequest("/items/41", "view=short", Map.of("id", "41"), Map.of());
+        assertEquals("42 short", body(captor.getValue().handle(request)));
+    }
+
+    @Test
+    void refusesPathVariablesTheRouteDoesNotHave() {
+        handler = new MyTinyControllerHandler(server, provider, new MyTinyRequestParamHandler(), viewRenderer);
+        assertThrows(RuntimeException.class, () -> handler.registerController(WrongPathVariableController.class));
+    }
+
+    @Test
+    void bindsCacheableRoutesWithTheirTtl() {
+        doReturn(new CacheableController()).when(provider).getBeanClass(CacheableController.class);
+        handler.registerController(CacheableController.class);
+        verify(server).bindContext(eq("/cached/page"), any(), eq(new MyTinyCachePolicy(30, 0, 0)));
+    }
+
+    @Test
+    void sendsTheVersionOfTheModelAsETag() {
+        doReturn(new VersionedController()).when(provider).getBeanClass(VersionedController.class);
+        doReturn((MyTinyResponseBody) out -> {}).when(viewRenderer).renderBody("/versioned/view", "model");
+        handler.registerController(VersionedController.class);
+        var captor = ArgumentCaptor.forClass(MyTinyHttpServer.GetResponse.class);
+        verify(server).bindContext(eq("/versioned/view"), captor.capture());
+        assertEquals("\"v3\"", captor.getValue().handle(null).getHeader("ETag"));
+    }
+
+    @Test
+    void coalescesAnnotatedRoutes() {
+        doReturn(new CoalescedController()).when(provider).getBeanClass(CoalescedController.class);
+        handler.registerController(CoalescedController.class);
+        var captor = ArgumentCaptor.forClass(MyTinyHttpServer.GetResponse.class);
+        verify(server).bindContext(eq("/coalesced/page"), captor.capture());
+        assertEquals("page", body(captor.getValue().handle(MyTinyRequest.of("a=1"))));
+        assertEquals(1, handler.getSingleFlight("/coalesced/page").getExecutions());
+        assertNull(handler.getSingleFlight("/test/hello"));
+    }
 }
@@ -0,0 +1,235 @@
+package de.dmitrij.patuk.framework;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MyTinyHttpServerTests {
+    MyTinyHttpServer server;
+    HttpClient client = HttpClient.newHttpClient();
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    HttpResponse<String> send(String path) throws Exception {
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path)).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    String get(String path) throws Exception {
+        return send(path).body();
+    }
+
+    @Test
+    void runsHandlersOnVirtualThreadsByDefault() throws Exception {
+        server = new MyTinyHttpServer(0);
+        server.bindContext("/thread", query -> MyTinyResponse.ok(String.valueOf(Thread.currentThread().isVirtual())));
+        server.start();
+        assertEquals("true", get("/thread"));
+    }
+
+    @Test
+    void runsHandlersOnPlatformPool() throws Exception {
+        server = new MyTinyHttpServer(0, 16, MyTinyExecutionMode.POOL, 2);
+        server.bindContext("/thread", query -> MyTinyResponse.ok(Thread.currentThread().getName()));
+        server.start();
+        assertTrue(get("/thread").startsWith("my-tiny-request-"));
+    }
+
+    @Test
+    void runsHandlersOnDispatcherThreadInSingleMode() throws Exception {
+        server = new MyTinyHttpServer(0, 0, MyTinyExecutionMode.SINGLE, 0);
+        server.bindContext("/thread", query -> MyTinyResponse.ok(String.valueOf(Thread.currentThread().isVirtual())));
+        server.start();
+        assertEquals("false", get("/thread"));
+    }
+
+    @Test
+    void parsesExecutionMode() {
+        assertEquals(MyTinyExecutionMode.VIRTUAL, MyTinyExecutionMode.fromProperty(null));
+        assertEquals(MyTinyExecutionMode.POOL, MyTinyExecutionMode.fromProperty(" pool "));
+        assertThrows(IllegalArgumentException.class, () -> MyTinyExecutionMode.fromProperty("fast"));
+    }
+
+    @Test
+    void streamsBodyAfterHeaders() throws Exception {
+        server = new MyTinyHttpServer(0);
+        server.bindContext("/stream", query -> MyTinyResponse.stream(out -> {
+            for (int i = 0; i < 3; i++) {
+                out.write(("part" + i).getBytes());
+                out.flush();
+            }
+        }));
+        server.start();
+        var response = send("/stream");
+        assertEquals("part0part1part2", response.body());
+        assertEquals("chunked", response.headers().firstValue("Transfer-Encoding").orElse(""));
+    }
+
+    @Test
+    void sendsContentLengthForBufferedBody() throws Exception {
+        server = new MyTinyHttpServer(0);
+        server.bindContext("/buffered", query -> MyTinyResponse.ok("äbc"));
+        server.start();
+        var response = send("/buffered");
+        assertEquals("äbc", response.body());
+        assertEquals(4, response.headers().firstValueAsLong("Content-Length").orElse(-1));
+        assertEquals(MyTinyResponse.DEFAULT_CONTENT_TYPE, response.headers().firstValue("Content-Type").orElse(""));
+    }
+
+    @Test
+    void sendsStatusAndHeadersOfResponse() throws Exception {
+        server = new MyTinyHttpServer(0);
+        server.bindContext("/created", query -> MyTinyResponse.ok("{}")
+                .withStatus(201)
+                .contentType("application/json")
+                .header("X-Test", "yes"));
+        server.bindContext("/empty", query -> MyTinyResponse.status(204));
+        server.start();
+        var response = send("/created");
+        assertEquals(201, response.statusCode());
+        assertEquals("application/json", response.headers().firstValue("Content-Type").orElse(""));
+        assertEquals("yes", response.headers().firstValue("X-Test").orElse(""));
+        assertEquals(204, send("/empty").statusCode());
+    }
+
+    @Test
+    void answersControllerErrorsWith500() throws Exception {
+        server = new MyTinyHttpServer(0);
+        server.bindContext("/fail", query -> {
+            throw new RuntimeException("controller failed");
+        });
+        server.start();
+        var response = send("/fail");
+        assertEquals(500, response.statusCode());
+        assertEquals("controller failed", response.body());
+    }
+
+    @Test
+    void routesWholePathsWithVariables() throws Exception {
+        server = new MyTinyHttpServer(0);
+        server.bindContext("/app/index", request -> MyTinyResponse.ok("index"));
+        server.bindContext("/app/apps/{list}", request -> MyTinyResponse.ok(
+                request.getPathVariable("list") + " " + request.getQueryParams().get("sort") + " " + request.getHeader("x-test")));
+        server.start();
+        assertEquals("index", get("/app/index"));
+        assertEquals(404, send("/app/indexFOO/anything").statusCode());
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + "/app/apps/7?sort=name"))
+                .header("X-Test", "yes")
+                .build();
+        assertEquals("7 name yes", client.send(request, HttpResponse.BodyHandlers.ofString()).body());
+    }
+
+    @Test
+    void answersCacheableRoutesFromTheCache() throws Exception {
+        server = new MyTinyHttpServer(0);
+        var calls = new AtomicInteger();
+        server.bindContext("/cached", request -> MyTinyResponse.ok("call " + calls.incrementAndGet()), 60);
+        server.start();
+        assertEquals("call 1", get("/cached?b=2&a=1"));
+        assertEquals("call 1", get("/cached?a=1&b=2"));
+        assertEquals("call 2", get("/cached?a=2"));
+        assertEquals(1, server.getResponseCache().getHits());
+    }
+
+    @Test
+    void answersUnchangedPagesWith304() throws Exception {
+        server = new MyTinyHttpServer(0);
+        server.bindContext("/page", request -> MyTinyResponse.ok("page"));
+        server.start();
+        var first = send("/page");
+        var etag = first.headers().firstValue("ETag").orElseThrow();
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + "/page"))
+                .header("If-None-Match", etag)
+                .build();
+        var second = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(304, second.statusCode());
+        assertEquals("", second.body());
+        assertEquals(etag, second.headers().firstValue("ETag").orElse(""));
+    }
+
+    @Test
+    void skipsTheBodyWhenTheVersionIsKnownUpFront() throws Exception {
+        server = new MyTinyHttpServer(0);
+        var rendered = new AtomicInteger();
+        server.bindContext("/view", request -> MyTinyResponse.stream(out -> {
+            rendered.incrementAndGet();
+            out.write("view".getBytes());
+        }).etag("v7"));
+        server.start();
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + "/view"))
+                .header("If-None-Match", "\"v7\"")
+                .build();
+        assertEquals(304, client.send(request, HttpResponse.BodyHandlers.ofString()).statusCode());
+        assertEquals(0, rendered.get());
+        assertEquals("view", get("/view"));
+        assertEquals(1, rendered.get());
+    }
+
+    @Test
+    void sendsStaleResponsesWhileRefreshingThem() throws Exception {
+        server = new MyTinyHttpServer(0);
+        var calls = new AtomicInteger();
+        var release = new CountDownLatch(1);
+        server.bindContext("/swr", request -> {
+            var call = calls.incrementAndGet();
+            if (call == 2) {
+                await(release);
+            }
+            return MyTinyResponse.ok("call " + call);
+        }, new MyTinyCachePolicy(1, 60, 0));
+        server.start();
+        assertEquals("call 1", get("/swr"));
+        Thread.sleep(1100);
+        //the refresh hangs, the requests still get the old page right away
+        assertEquals("call 1", get("/swr"));
+        assertEquals("call 1", get("/swr"));
+        release.countDown();
+        while (server.getResponseCache().get("/swr") == null) {
+            Thread.sleep(10);
+        }
+        assertEquals("call 2", get("/swr"));
+        assertEquals(2, calls.get());
+        assertEquals(1, server.getResponseCache().getRefreshes());
+    }
+
+    @Test
+    void sendsStaleResponseWhenTheControllerFails() throws Exception {
+        server = new MyTinyHttpServer(0);
+        var calls = new AtomicInteger();
+        server.bindContext("/sie", request -> {
+            if (calls.incrementAndGet() > 1) {
+                throw new RuntimeException("database down");
+            }
+            return MyTinyResponse.ok("page");
+        }, new MyTinyCachePolicy(1, 0, 60));
+        server.start();
+        assertEquals("page", get("/sie"));
+        Thread.sleep(1100);
+        var response = send("/sie");
+        assertEquals(200, response.statusCode());
+        assertEquals("page", response.body());
+        assertEquals(1, server.getResponseCache().getStaleOnError());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package de.dmitrij.patuk.framework;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvokerTarget {
+    public String noArgs() {
+        return "none";
+    }
+
+    public String twoArgs(String name, int age) {
+        return name + age;
+    }
+
+    public int primitiveResult(int a) {
+        return a * 2;
+    }
+
+    public String sixArgs(String a, String b, String c, String d, String e, String f) {
+        return a + b + c + d + e + f;
+    }
+
+    public static String staticMethod(String a) {
+        return "static " + a;
+    }
+
+    String packagePrivate() {
+        return "package";
+    }
+
+    public String fails() {
+        throw new IllegalStateException("boom");
+    }
+}
+
+public class MyTinyInvokerFactoryTests {
+    MyTinyInvokerFactory factory;
+    InvokerTarget target;
+
+    @BeforeEach
+    void setup() {
+        factory = new MyTinyInvokerFactory();
+        target = new InvokerTarget();
+    }
+
+    @Test
+    void invokesMethodWithoutArguments() throws Throwable {
+        var invoker = factory.create(InvokerTarget.class.getMethod("noArgs"));
+        assertEquals("none", invoker.invoke(target, new Object[0]));
+    }
+
+    @Test
+    void invokesMethodWithPrimitiveArguments() throws Throwable {
+        var invoker = factory.create(InvokerTarget.class.getMethod("twoArgs", String.class, int.class));
+        assertEquals("Max42", invoker.invoke(target, new Object[]{"Max", 42}));
+    }
+
+    @Test
+    void boxesPrimitiveResult() throws Throwable {
+        var invoker = factory.create(InvokerTarget.class.getMethod("primitiveResult", int.class));
+        assertEquals(8, invoker.invoke(target, new Object[]{4}));
+    }
+
+    @Test
+    void invokesMethodWithManyArguments() throws Throwable {
+        var method = InvokerTarget.class.getMethod("sixArgs",
+                String.class, String.class, String.class, String.class, String.class, String.class);
+        var invoker = factory.create(method);
+        assertEquals("abcdef", invoker.invoke(target, new Object[]{"a", "b", "c", "d", "e", "f"}));
+    }
+
+    @Test
+    void invokesStaticMethod() throws Throwable {
+        var invoker = factory.create(InvokerTarget.class.getMethod("staticMethod", String.class));
+        assertEquals("static a", invoker.invoke(null, new Object[]{"a"}));
+    }
+
+    @Test
+    void invokesPackagePrivateMethod() throws Throwable {
+        var invoker = factory.create(InvokerTarget.class.getDeclaredMethod("packagePrivate"));
+        assertEquals("package", invoker.invoke(target, new Object[0]));
+    }
+
+    @Test
+    void propagatesExceptionsUnwrapped() throws Exception {
+        var invoker = factory.create(InvokerTarget.class.getMethod("fails"));
+        var ex = assertThrows(IllegalStateException.class, () -> invoker.invoke(target, new Object[0]));
+        assertEquals("boom", ex.getMessage());
+    }
+}
@@ -0,0 +1,63 @@
+package de.dmitrij.patuk.framework;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MyTinyQueryParamsTests {
+    @Test
+    void parsesSimpleQuery() {
+        var params = MyTinyQueryParams.parse("foo=bar&num=42");
+        assertEquals(2, params.size());
+        assertEquals("bar", params.get("foo"));
+        assertEquals("42", params.get("num"));
+        assertNull(params.get("missing"));
+    }
+
+    @Test
+    void parsesEmptyOrNullQuery() {
+        assertTrue(MyTinyQueryParams.parse(null).isEmpty());
+        assertTrue(MyTinyQueryParams.parse("").isEmpty());
+        assertTrue(MyTinyQueryParams.parse("&&").isEmpty());
+    }
+
+    @Test
+    void keepsValuelessKeysAndSplitsOnFirstEquals() {
+        var params = MyTinyQueryParams.parse("flag&a=b=c&=ignored&empty=");
+        assertTrue(params.contains("flag"));
+        assertEquals("", params.get("flag"));
+        assertEquals("b=c", params.get("a"));
+        assertEquals("", params.get("empty"));
+        assertEquals(3, params.size());
+    }
+
+    @Test
+    void decodesNamesAndValues() {
+        var params = MyTinyQueryParams.parse("na%6De=J%C3%BCrgen+M%C3%BCller&q=a%26b&broken=%zz");
+        assertEquals("Jürgen Müller", params.get("name"));
+        assertEquals("a&b", params.get("q"));
+        assertEquals("%zz", params.get("broken"));
+    }
+
+    @Test
+    void returnsAllValuesOfRepeatedKeys() {
+        var params = MyTinyQueryParams.parse("tag=a&x=1&tag=b&tag=c");
+        assertEquals("a", params.get("tag"));
+        assertEquals(List.of("a", "b", "c"), params.getAll("tag"));
+        assertEquals(List.of(), params.getAll("none"));
+    }
+
+    @Test
+    void growsBeyondDefaultCapacity() {
+        var query = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            query.append("p").append(i).append('=').append(i).append('&');
+        }
+        var params = MyTinyQueryParams.parse(query.toString());
+        assertEquals(20, params.size());
+        assertEquals("19", params.get("p19"));
+        assertEquals("p19", params.getName(19));
+    }
+}
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.lang.reflect.Parameter;
+import java.util.List;
 import java.util.Map;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -13,6 +14,11 @@ class DummyController {
     public void boolParam(@MyTinyRequestParam(name = "flag") boolean flag) {}
     public void doubleParam(@MyTinyRequestParam(name = "d") double d) {}
     public void noAnnotation(String notHandled) {}
+    public void defaultParam(@MyTinyRequestParam(name = "page", defaultValue = "1") int page) {}
+    public void optionalParam(@MyTinyRequestParam(name = "size", required = false) int size) {}
+    public void listParam(@MyTinyRequestParam(name = "tag") List<Integer> tags) {}
+    public void arrayParam(@MyTinyRequestParam(name = "tag", required = false) long[] tags) {}
+    public void twoParams(@MyTinyRequestParam(name = "foo") String foo, @MyTinyRequestParam(name = "num") long num) {}
 }
 
 public class MyTinyRequestParamHandlerTests {
@@ -43,7 +49,7 @@ public class MyTinyRequestParamHandlerTests {
         Map<String, String> params = handler.getRequestParams("foo=bar&bad&x=1");
         assertEquals("bar", params.get("foo"));
         assertEquals("1", params.get("x"));
-        assertFalse(params.containsKey("bad"));
+        assertEquals("", params.get("bad"));
     }
 
     @Test
@@ -98,4 +104,42 @@ public class MyTinyRequestParamHandlerTests {
         Exception ex = assertThrows(RuntimeException.class, () -> handler.handle(p, Map.of("c", "x")));
         assertTrue(ex.getMessage().contains("not supported"));
     }
+
+    @Test
+    void usesDefaultValueIfParamMissing() throws Exception {
+        Parameter p = DummyController.class.getMethod("defaultParam", int.class).getParameters()[0];
+        var binder = handler.compile(p);
+        assertFalse(binder.isRequired());
+        assertEquals(1, binder.bind(Map.of()));
+        assertEquals(5, binder.bind(Map.of("page", "5")));
+    }
+
+    @Test
+    void usesPrimitiveDefaultForOptionalParam() throws Exception {
+        Parameter p = DummyController.class.getMethod("optionalParam", int.class).getParameters()[0];
+        assertEquals(0, handler.compile(p).bind(Map.of()));
+    }
+
+    @Test
+    void compilesBindersForAllMethodParams() throws Exception {
+        var binders = handler.compile(DummyController.class.getMethod("twoParams", String.class, long.class));
+        assertEquals(2, binders.size());
+        assertEquals("foo", binders.get(0).getName());
+        assertEquals(7L, binders.get(1).bind(Map.of("num", "7")));
+    }
+
+    @Test
+    void bindsRepeatedParamToList() throws Exception {
+        Parameter p = DummyController.class.getMethod("listParam", List.class).getParameters()[0];
+        var binder = handler.compile(p);
+        assertEquals(List.of(1, 2, 3), binder.bind(MyTinyQueryParams.parse("tag=1&tag=2&x=y&tag=3")));
+    }
+
+    @Test
+    void bindsRepeatedParamToPrimitiveArray() throws Exception {
+        Parameter p = DummyController.class.getMethod("arrayParam", long[].class).getParameters()[0];
+        var binder = handler.compile(p);
+        assertArrayEquals(new long[]{4, 5}, (long[]) binder.bind(MyTinyQueryParams.parse("tag=4&tag=5")));
+        assertArrayEquals(new long[0], (long[]) binder.bind(MyTinyQueryParams.parse("")));
+    }
 }
@@ -0,0 +1,111 @@
+package de.dmitrij.patuk.framework;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MyTinyResponseCacheTests {
+    static MyTinyResponse page(int size) {
+        return MyTinyResponse.ok(new byte[size]);
+    }
+
+    @Test
+    void canonicalizesTheQuery() {
+        assertEquals("/app/apps?page=2&sort=name", MyTinyResponseCache.key("/app/apps", "sort=name&page=%32"));
+        assertEquals("/app/apps?page=2&sort=name", MyTinyResponseCache.key("/app/apps", "page=2&sort=name"));
+        assertEquals("/app/apps?q=a+b&tag=2&tag=1", MyTinyResponseCache.key("/app/apps", "tag=2&q=a%20b&tag=1"));
+        assertEquals("/app/apps", MyTinyResponseCache.key("/app/apps", null));
+    }
+
+    @Test
+    void answersUntilTheTtlRunsOut() throws Exception {
+        var cache = new MyTinyResponseCache();
+        assertNull(cache.get("/a"));
+        var response = cache.put("/a", MyTinyResponse.ok("page"), 1);
+        assertSame(response, cache.get("/a"));
+        assertEquals(0.5, cache.getHitRate());
+        Thread.sleep(1100);
+        assertNull(cache.get("/a"));
+        assertEquals(1, cache.getExpirations());
+        assertEquals(0, cache.getBytes());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedWhenBytesRunOut() {
+        var cache = new MyTinyResponseCache(3 * 1500);
+        cache.put("/a", page(1000), 60);
+        cache.put("/b", page(1000), 60);
+        cache.put("/c", page(1000), 60);
+        cache.get("/a");
+        cache.put("/d", page(1000), 60);
+        assertNull(cache.get("/b"));
+        assertNotNull(cache.get("/a"));
+        assertEquals(1, cache.getEvictions());
+        assertTrue(cache.getBytes() <= cache.getMaxBytes());
+        //a response that could never fit is sent but not kept
+        cache.put("/big", page(5000), 60);
+        assertNull(cache.get("/big"));
+    }
+
+    @Test
+    void buffersStreamedResponses() {
+        var cache = new MyTinyResponseCache();
+        var streamed = MyTinyResponse.stream(MyTinyResponseBody.of("streamed")).header("X-Test", "yes");
+        var buffered = cache.put("/s", streamed, 60);
+        assertTrue(buffered.isBuffered());
+        assertEquals("streamed", new String(buffered.getBytes(), StandardCharsets.UTF_8));
+        assertEquals("yes", cache.get("/s").getHeader("X-Test"));
+        assertEquals(MyTinyConditionalGet.etag(buffered.getBytes()), buffered.getHeader("ETag"));
+        assertNotNull(buffered.getHeader("Last-Modified"));
+    }
+
+    @Test
+    void evictsAllQueriesOfAPath() {
+        var cache = new MyTinyResponseCache();
+        cache.put("/a?x=1", page(1), 60);
+        cache.put("/a", page(1), 60);
+        cache.put("/ab", page(1), 60);
+        cache.evict("/a");
+        assertEquals(1, cache.size());
+        assertNotNull(cache.get("/ab"));
+    }
+
+    @Test
+    void keepsStaleResponsesForTheirWindows() throws Exception {
+        var cache = new MyTinyResponseCache();
+        cache.put("/swr", MyTinyResponse.ok("swr"), new MyTinyCachePolicy(1, 60, 0));
+        cache.put("/sie", MyTinyResponse.ok("sie"), new MyTinyCachePolicy(1, 0, 60));
+        assertEquals(MyTinyResponseCache.Freshness.FRESH, cache.lookup("/swr").freshness());
+        Thread.sleep(1100);
+        assertEquals(MyTinyResponseCache.Freshness.STALE, cache.lookup("/swr").freshness());
+        assertEquals(MyTinyResponseCache.Freshness.STALE_IF_ERROR, cache.lookup("/sie").freshness());
+        assertNull(cache.get("/swr"));
+        assertEquals(1, cache.getStaleHits());
+    }
+
+    @Test
+    void letsOnlyOneRefreshRunPerKey() {
+        var cache = new MyTinyResponseCache();
+        assertTrue(cache.startRefresh("/a"));
+        assertFalse(cache.startRefresh("/a"));
+        assertTrue(cache.startRefresh("/b"));
+        cache.endRefresh("/a");
+        assertTrue(cache.startRefresh("/a"));
+        assertEquals(3, cache.getRefreshes());
+    }
+
+    @Test
+    void keepsACopyOfTheControllersResponse() {
+        var cache = new MyTinyResponseCache();
+        var response = MyTinyResponse.ok("page");
+        var cached = cache.put("/a", response, 60);
+        assertNotSame(response, cached);
+        assertNull(response.getHeader("ETag"));
+        assertNull(response.getHeader("Last-Modified"));
+        response.withStatus(500);
+        assertEquals(200, cache.get("/a").getStatus());
+        assertNotNull(cache.get("/a").getHeader("ETag"));
+    }
+}
@@ -0,0 +1,52 @@
+package de.dmitrij.patuk.framework;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//Not a test, run the main method to see how long a lookup takes with 10 to 10000 routes.
+//Every controller has a few literal routes and one with a path variable, we look up paths of both kinds.
+//The trie does the same work for every size, with 10000 routes it is slower since it no longer fits the cpu cache.
+public class MyTinyRouterBenchmark {
+    private static final int LOOKUPS = 10_000_000;
+
+    public static void main(String[] args) {
+        for (var routes : List.of(10, 100, 1000, 10000)) {
+            var router = new MyTinyRouter<String>();
+            var literalPaths = new ArrayList<String>();
+            var variablePaths = new ArrayList<String>();
+            for (int i = 0; i < routes / 5; i++) {
+                for (var action : List.of("index", "list", "new", "search")) {
+                    router.add("/controller" + i + "/" + action, action);
+                }
+                router.add("/controller" + i + "/items/{id}", "item");
+                literalPaths.add("/controller" + i + "/search");
+                variablePaths.add("/controller" + i + "/items/" + i);
+            }
+            System.out.printf("%6d routes: %6.1f ns literal, %6.1f ns with a variable%n", routes,
+                    measure(router, literalPaths.toArray(new String[0])),
+                    measure(router, variablePaths.toArray(new String[0])));
+        }
+    }
+
+    private static double measure(MyTinyRouter<String> router, String[] paths) {
+        //warm up, then measure
+        run(router, paths);
+        var start = System.nanoTime();
+        var found = run(router, paths);
+        var nanos = System.nanoTime() - start;
+        if (found != LOOKUPS) {
+            throw new IllegalStateException("Only " + found + " lookups found a route");
+        }
+        return (double) nanos / LOOKUPS;
+    }
+
+    private static int run(MyTinyRouter<String> router, String[] paths) {
+        int found = 0;
+        for (int i = 0; i < LOOKUPS; i++) {
+            if (router.match(paths[i % paths.length]) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+}
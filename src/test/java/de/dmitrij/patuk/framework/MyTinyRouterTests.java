@@ -0,0 +1,82 @@
+package de.dmitrij.patuk.framework;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MyTinyRouterTests {
+    MyTinyRouter<String> router;
+
+    @BeforeEach
+    void setup() {
+        router = new MyTinyRouter<>();
+        router.add("/app/index", "index");
+        router.add("/app/apps/{list}", "list");
+        router.add("/app/apps/new", "new");
+        router.add("/app/apps/{list}/apps/{app}", "app");
+        router.add("/static/*", "static");
+    }
+
+    @Test
+    void matchesWholePathsOnly() {
+        assertEquals("index", router.match("/app/index").handler());
+        assertEquals("index", router.match("/app//index/").handler());
+        assertNull(router.match("/app/indexFOO/anything"));
+        assertNull(router.match("/app/index/more"));
+        assertNull(router.match("/app"));
+    }
+
+    @Test
+    void bindsPathVariables() {
+        var match = router.match("/app/apps/3/apps/a%20b+c");
+        assertEquals("app", match.handler());
+        assertEquals(Map.of("list", "3", "app", "a b+c"), match.pathVariables());
+        assertEquals(Map.of(), router.match("/app/index").pathVariables());
+    }
+
+    @Test
+    void findsEveryOfManyLiteralSiblings() {
+        //"Aa" and "BB" have the same hash code
+        router.add("/hash/Aa", "Aa");
+        router.add("/hash/BB", "BB");
+        for (int i = 0; i < 100; i++) {
+            router.add("/many/page" + i, "page" + i);
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals("page" + i, router.match("/many/page" + i).handler());
+        }
+        assertNull(router.match("/many/page100"));
+        assertEquals("Aa", router.match("/hash/Aa").handler());
+        assertEquals("BB", router.match("/hash/BB").handler());
+    }
+
+    @Test
+    void prefersLiteralsOverVariables() {
+        assertEquals("new", router.match("/app/apps/new").handler());
+        assertEquals("list", router.match("/app/apps/old").handler());
+    }
+
+    @Test
+    void backtracksWhenLiteralBranchDoesNotMatch() {
+        router.add("/app/apps/new/edit", "edit");
+        var match = router.match("/app/apps/new/apps/7");
+        assertEquals("app", match.handler());
+        assertEquals(Map.of("list", "new", "app", "7"), match.pathVariables());
+    }
+
+    @Test
+    void wildcardMatchesTheRest() {
+        assertEquals(Map.of("*", "css/site.css"), router.match("/static/css/site.css").pathVariables());
+        assertEquals(Map.of("*", ""), router.match("/static").pathVariables());
+    }
+
+    @Test
+    void rejectsInvalidRoutes() {
+        assertThrows(RuntimeException.class, () -> router.add("/app/index", "again"));
+        assertThrows(RuntimeException.class, () -> router.add("/files/*/x", "x"));
+        assertThrows(RuntimeException.class, () -> router.add("/a/{id}/{id}", "x"));
+    }
+}
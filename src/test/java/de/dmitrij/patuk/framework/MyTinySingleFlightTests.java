@@ -0,0 +1,105 @@
+package de.dmitrij.patuk.framework;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MyTinySingleFlightTests {
+    MyTinySingleFlight singleFlight = new MyTinySingleFlight();
+    AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void runsOverlappingRequestsOnce() throws Exception {
+        var release = new CountDownLatch(1);
+        var futures = new ArrayList<Future<MyTinyResponse>>();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> singleFlight.run("/a", () -> {
+                    calls.incrementAndGet();
+                    await(release);
+                    return MyTinyResponse.stream(MyTinyResponseBody.of("page"));
+                })));
+            }
+            //all requests are either running or waiting before the first one may finish
+            while (singleFlight.getExecutions() + singleFlight.getMerged() < 8) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            for (var future : futures) {
+                assertEquals("page", new String(future.get(5, TimeUnit.SECONDS).getBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        assertEquals(1, calls.get());
+        assertEquals(1, singleFlight.getExecutions());
+        assertEquals(7, singleFlight.getMerged());
+        assertEquals(0, singleFlight.getInFlight());
+    }
+
+    @Test
+    void runsAgainAfterTheResponseWasSent() {
+        singleFlight.run("/a", () -> MyTinyResponse.ok("1"));
+        singleFlight.run("/a", () -> MyTinyResponse.ok("2"));
+        singleFlight.run("/b", () -> MyTinyResponse.ok("3"));
+        assertEquals(3, singleFlight.getExecutions());
+        assertEquals(0, singleFlight.getMerged());
+    }
+
+    @Test
+    void givesEveryRequestItsOwnHeaders() {
+        var first = singleFlight.run("/a", () -> MyTinyResponse.ok("page").header("X-Test", "yes"));
+        first.header("ETag", "\"x\"");
+        var second = singleFlight.run("/a", () -> MyTinyResponse.ok("page").header("X-Test", "yes"));
+        assertNull(second.getHeader("ETag"));
+        assertEquals("yes", second.getHeader("X-Test"));
+    }
+
+    @Test
+    void throwsTheFailureToTheCaller() {
+        var ex = assertThrows(IllegalStateException.class, () -> singleFlight.run("/a", () -> {
+            throw new IllegalStateException("controller failed");
+        }));
+        assertEquals("controller failed", ex.getMessage());
+        assertEquals(0, singleFlight.getInFlight());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void releasesWaitingRequestsWhenTheLeaderThrowsAnError() throws Exception {
+        var release = new CountDownLatch(1);
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var leader = executor.submit(() -> singleFlight.run("/a", () -> {
+                await(release);
+                throw new AssertionError("leader broke");
+            }));
+            while (singleFlight.getExecutions() < 1) {
+                Thread.sleep(5);
+            }
+            var waiter = executor.submit(() -> singleFlight.run("/a", () -> MyTinyResponse.ok("not me")));
+            while (singleFlight.getMerged() < 1) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            var leaderFailure = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(AssertionError.class, leaderFailure.getCause());
+            var waiterFailure = assertThrows(ExecutionException.class, () -> waiter.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(AssertionError.class, waiterFailure.getCause());
+        }
+        assertEquals(0, singleFlight.getInFlight());
+    }
+}
@@ -0,0 +1,112 @@
+package de.dmitrij.patuk.framework;
+
+import de.dmitrij.patuk.template.nodes.MyTinyTemplate;
+import de.dmitrij.patuk.template.nodes.MyTinyTextNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MyTinyTemplateCacheTests {
+    MyTinyTemplateCache cache;
+    AtomicInteger loads;
+
+    @BeforeEach
+    void setup() {
+        cache = new MyTinyTemplateCache(2);
+        loads = new AtomicInteger();
+    }
+
+    MyTinyTemplate load(String viewName) {
+        loads.incrementAndGet();
+        return new MyTinyTemplate(List.of(new MyTinyTextNode(viewName)));
+    }
+
+    @Test
+    void loadsViewOnlyOnce() {
+        var first = cache.get("/a", this::load);
+        var second = cache.get("/a", this::load);
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedView() {
+        cache.get("/a", this::load);
+        cache.get("/b", this::load);
+        cache.get("/a", this::load);
+        cache.get("/c", this::load);
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        cache.get("/a", this::load);
+        assertEquals(3, loads.get());
+        cache.get("/b", this::load);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void invalidateForcesReload() {
+        cache.get("/a", this::load);
+        cache.invalidate("/a");
+        cache.get("/a", this::load);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidateDropsViewsThatIncludeTheView() {
+        cache = new MyTinyTemplateCache(10);
+        cache.get("/page", name -> {
+            var template = load(name);
+            template.setDependencies(Set.of("/layout", "/item"));
+            return template;
+        });
+        cache.get("/other", this::load);
+
+        assertEquals(Set.of("/item", "/page"), cache.invalidate("/item"));
+        assertEquals(1, cache.size());
+        assertEquals(Set.of("/other"), cache.invalidate("/other"));
+    }
+
+    @Test
+    void concurrentMissesParseOnce() throws Exception {
+        var start = new CountDownLatch(1);
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 8; i++) {
+                executor.submit(() -> {
+                    start.await();
+                    return cache.get("/a", name -> {
+                        sleep();
+                        return load(name);
+                    });
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(8, cache.getHits() + cache.getMisses());
+    }
+
+    @Test
+    void rejectsInvalidSize() {
+        assertThrows(IllegalArgumentException.class, () -> new MyTinyTemplateCache(0));
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package de.dmitrij.patuk.template;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+//Not a test, run the main method to see what escaping costs compared to writing the values as they are.
+//Every page writes 10000 values, most of them without any html chars as in a real page.
+public class MyTinyEscapeBenchmark {
+    private static final int ROUNDS = 200;
+    private static final int WARMUP_ROUNDS = 100;
+
+    public static void main(String[] args) {
+        var items = new ArrayList<Map<String, String>>();
+        for (int i = 0; i < 10000; i++) {
+            var description = i % 10 == 0 ? "Tom & Jerry <" + i + ">" : "A plain description of app number " + i;
+            items.add(Map.of("name", "App " + i, "description", description));
+        }
+        var model = Map.of("items", items);
+
+        var escaped = compile("{{ foreach i : model.items }}<li>{{ i.name }}: {{ i.description }}</li>{{ endforeach }}");
+        var raw = compile("{{ foreach i : model.items }}<li>{{ raw i.name }}: {{ raw i.description }}</li>{{ endforeach }}");
+
+        for (var round = 0; round < WARMUP_ROUNDS; round++) {
+            run(escaped, model);
+            run(raw, model);
+        }
+        report("utf8 sink, raw", measure(raw, model));
+        report("utf8 sink, escaped", measure(escaped, model));
+    }
+
+    private static MyTinyCompiledTemplate compile(String text) {
+        var template = new MyTinyParser().parseTemplate(new MyTinyTokenStream(new MyTinyTokenizer().scan(text)));
+        new MyTinySlotResolver().resolve(template);
+        return new MyTinyTemplateCompiler().compile(template);
+    }
+
+    private static List<Long> measure(MyTinyCompiledTemplate template, Object model) {
+        var times = new ArrayList<Long>();
+        for (var round = 0; round < ROUNDS; round++) {
+            var start = System.nanoTime();
+            run(template, model);
+            times.add(System.nanoTime() - start);
+        }
+        return times;
+    }
+
+    private static void run(MyTinyCompiledTemplate template, Object model) {
+        var sink = new MyTinyUtf8Sink(OutputStream.nullOutputStream());
+        template.render(model, sink);
+        sink.flush();
+    }
+
+    private static void report(String name, List<Long> times) {
+        var sorted = times.stream().sorted().toList();
+        System.out.printf("%-20s median %8.1f us, p90 %8.1f us%n", name,
+                sorted.get(sorted.size() / 2) / 1000.0, sorted.get(sorted.size() * 9 / 10) / 1000.0);
+    }
+}
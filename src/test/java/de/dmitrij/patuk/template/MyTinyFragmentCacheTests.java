@@ -0,0 +1,136 @@
+package de.dmitrij.patuk.template;
+
+import de.dmitrij.patuk.template.nodes.MyTinyCacheNode;
+import de.dmitrij.patuk.template.nodes.MyTinyTemplate;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountingTitle {
+    private final String title;
+    int reads;
+
+    CountingTitle(String title) {
+        this.title = title;
+    }
+
+    public String getTitle() {
+        reads++;
+        return title;
+    }
+}
+
+public class MyTinyFragmentCacheTests {
+    MyTinyTemplate load(String view, String text, MyTinyFragmentCache cache) {
+        var tokens = new MyTinyTokenizer().scan(text);
+        var template = new MyTinyParser().parseTemplate(new MyTinyTokenStream(tokens));
+        new MyTinySlotResolver().resolve(template);
+        cache.bind(view, template);
+        return template;
+    }
+
+    String interpret(MyTinyTemplate template, Object model) {
+        var sink = new MyTinyStringSink();
+        template.render(new MyTinyContext(model, template.getFrameSize()), sink);
+        return sink.toString();
+    }
+
+    @Test
+    void parsesCacheDirective() {
+        var template = load("/v", "{{ cache model.id 60 }}x{{ endcache }}{{ cache model }}y{{ endcache }}", new MyTinyFragmentCache());
+        var first = (MyTinyCacheNode) template.getNodes().get(0);
+        var second = (MyTinyCacheNode) template.getNodes().get(1);
+        assertEquals(60, first.getTtlSeconds());
+        assertEquals(0, first.getBlockId());
+        assertEquals(0, second.getTtlSeconds());
+        assertEquals(1, second.getBlockId());
+    }
+
+    @Test
+    void reusesFragmentPerKeyValue() {
+        var cache = new MyTinyFragmentCache();
+        var template = load("/v", "{{ foreach list : model }}{{ cache list.title 60 }}<h2>{{ list.title }}</h2>{{ endcache }}{{ endforeach }}", cache);
+        var a = new CountingTitle("a");
+        var b = new CountingTitle("b");
+        assertEquals("<h2>a</h2><h2>b</h2><h2>a</h2>", interpret(template, List.of(a, b, a)));
+        //the key is read on every render, the title in the block only when it was rendered
+        assertEquals(3, a.reads);
+        assertEquals(2, b.reads);
+        assertEquals(2, cache.getMisses());
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void compiledTemplatesShareTheFragments() {
+        var cache = new MyTinyFragmentCache();
+        var template = load("/v", "[{{ cache model.id }}{{ model.name }}{{ endcache }}]", cache);
+        var compiled = new MyTinyTemplateCompiler().compile(template);
+        var model = new HashMap<String, Object>(Map.of("id", 1, "name", "first"));
+        assertEquals("[first]", interpret(template, model));
+        model.put("name", "changed");
+        var out = new ByteArrayOutputStream();
+        var sink = new MyTinyUtf8Sink(out);
+        compiled.render(model, sink);
+        sink.flush();
+        assertEquals("[first]", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void evictsByViewBlockAndKey() {
+        var cache = new MyTinyFragmentCache();
+        var template = load("/v", "{{ cache model.id }}{{ model.name }}{{ endcache }}", cache);
+        var model = new HashMap<String, Object>(Map.of("id", 1, "name", "old"));
+        interpret(template, model);
+        model.put("name", "new");
+        assertEquals("old", interpret(template, model));
+        cache.evict("/v", 0, 1);
+        assertEquals("new", interpret(template, model));
+        cache.evict("/v");
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedFragment() {
+        var cache = new MyTinyFragmentCache(2 * (2 + MyTinyFragmentCache.ENTRY_OVERHEAD));
+        var template = load("/v", "{{ cache model }}{{ model }}{{ endcache }}", cache);
+        interpret(template, "a");
+        interpret(template, "b");
+        interpret(template, "a");
+        interpret(template, "c");
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        interpret(template, "a");
+        assertEquals(2, cache.getHits());
+    }
+
+    @Test
+    void boundsTheCacheByBytes() {
+        var small = 2 + MyTinyFragmentCache.ENTRY_OVERHEAD;
+        var cache = new MyTinyFragmentCache(4 * small);
+        var template = load("/v", "{{ cache model }}{{ model }}{{ endcache }}", cache);
+        interpret(template, "a");
+        interpret(template, "b");
+        interpret(template, "c");
+        assertEquals(3 * small, cache.getBytes());
+        //one fragment a bit bigger than two small ones pushes out the two least recently used
+        interpret(template, "x".repeat(small / 2 + 2));
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.getEvictions());
+        assertTrue(cache.getBytes() <= cache.getMaxBytes());
+    }
+
+    @Test
+    void renderWithoutBindingSkipsTheCache() {
+        var tokens = new MyTinyTokenizer().scan("{{ cache model }}{{ model }}{{ endcache }}");
+        var template = new MyTinyParser().parseTemplate(new MyTinyTokenStream(tokens));
+        assertEquals("x", interpret(template, "x"));
+        assertEquals("y", interpret(template, "y"));
+    }
+}
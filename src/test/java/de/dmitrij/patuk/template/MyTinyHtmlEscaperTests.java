@@ -0,0 +1,59 @@
+package de.dmitrij.patuk.template;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MyTinyHtmlEscaperTests {
+    String escapeToString(String text) {
+        var sink = new MyTinyStringSink();
+        sink.writeEscaped(text);
+        return sink.toString();
+    }
+
+    String escapeToBytes(String text, int bufferSize) {
+        var out = new ByteArrayOutputStream();
+        var sink = new MyTinyUtf8Sink(out, bufferSize);
+        sink.writeEscaped(text);
+        sink.flush();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void replacesHtmlChars() {
+        var text = "<a href=\"x\">Tom & 'Jerry'</a>";
+        var expected = "&lt;a href=&quot;x&quot;&gt;Tom &amp; &#39;Jerry&#39;&lt;/a&gt;";
+        assertEquals(expected, escapeToString(text));
+        assertEquals(expected, escapeToBytes(text, 16));
+        assertEquals(expected, MyTinyHtmlEscaper.escape(text));
+    }
+
+    @Test
+    void keepsSafeTextAsItIs() {
+        var text = "Grüße aus Mannheim 😀";
+        assertSame(text, MyTinyHtmlEscaper.escape(text));
+        assertEquals(-1, MyTinyHtmlEscaper.indexOfEscaped(text, 0));
+        assertEquals(text, escapeToBytes(text, 16));
+        assertEquals("😀&amp;ä", escapeToBytes("😀&ä", 16));
+    }
+
+    @Test
+    void escapesExpressionsUnlessRaw() {
+        var tokens = new MyTinyTokenizer().scan("{{ model.html }}|{{ raw model.html }}");
+        var template = new MyTinyParser().parseTemplate(new MyTinyTokenStream(tokens));
+        new MyTinySlotResolver().resolve(template);
+        var model = Map.of("html", "<b>hi</b>");
+
+        var interpreted = new MyTinyStringSink();
+        template.render(new MyTinyContext(model, template.getFrameSize()), interpreted);
+        var compiled = new MyTinyStringSink();
+        new MyTinyTemplateCompiler().compile(template).render(model, compiled);
+
+        assertEquals("&lt;b&gt;hi&lt;/b&gt;|<b>hi</b>", interpreted.toString());
+        assertEquals(interpreted.toString(), compiled.toString());
+    }
+}
@@ -0,0 +1,54 @@
+package de.dmitrij.patuk.template;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MyTinyLruCacheTests {
+    MyTinyLruCache<String, String> cache = new MyTinyLruCache<>(10, String::length);
+
+    @Test
+    void evictsLeastRecentlyUsedByWeight() {
+        assertEquals(List.of(), cache.put("a", "aaaa"));
+        assertEquals(List.of(), cache.put("b", "bbbb"));
+        assertEquals("aaaa", cache.get("a"));
+        //b was used last before a, so it goes first
+        assertEquals(List.of("b"), cache.put("c", "cccc"));
+        assertEquals(8, cache.getWeight());
+        assertEquals(List.of("a", "c"), cache.put("d", "dddddddd"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void replacingAValueReplacesItsWeight() {
+        cache.put("a", "aaaaaaaa");
+        cache.put("a", "a");
+        assertEquals(1, cache.getWeight());
+        assertEquals(List.of(), cache.put("b", "bbbbbbbbb"));
+        assertEquals(10, cache.getWeight());
+    }
+
+    @Test
+    void doesNotStoreValuesHeavierThanTheCache() {
+        cache.put("a", "a");
+        assertEquals(List.of(), cache.put("big", "x".repeat(11)));
+        assertNull(cache.get("big"));
+        assertEquals("a", cache.get("a"));
+    }
+
+    @Test
+    void removesOnlyTheExpectedValue() {
+        cache.put("a", "old");
+        assertFalse(cache.remove("a", "other"));
+        assertTrue(cache.remove("a", "old"));
+        assertEquals(0, cache.getWeight());
+        cache.put("/v?x=1", "1");
+        cache.put("/v?x=2", "2");
+        cache.put("/w", "3");
+        assertEquals(2, cache.removeIf(key -> key.startsWith("/v")));
+        assertEquals(1, cache.getWeight());
+        assertThrows(IllegalArgumentException.class, () -> new MyTinyLruCache<String, String>(0, String::length));
+    }
+}
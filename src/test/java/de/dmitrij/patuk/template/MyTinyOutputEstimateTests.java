@@ -0,0 +1,33 @@
+package de.dmitrij.patuk.template;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MyTinyOutputEstimateTests {
+    @Test
+    void startsWithoutAnEstimate() {
+        assertEquals(0, new MyTinyOutputEstimate().get());
+    }
+
+    @Test
+    void keepsTheBiggestOutputWithSomeRoom() {
+        var estimate = new MyTinyOutputEstimate();
+        estimate.record(8000);
+        assertEquals(9000, estimate.get());
+        estimate.record(16000);
+        assertEquals(18000, estimate.get());
+    }
+
+    @Test
+    void shrinksSlowlyAfterSmallerOutputs() {
+        var estimate = new MyTinyOutputEstimate();
+        estimate.record(10000);
+        estimate.record(2000);
+        assertEquals(8750 + 8750 / 8, estimate.get());
+        for (int i = 0; i < 100; i++) {
+            estimate.record(2000);
+        }
+        assertEquals(2250, estimate.get());
+    }
+}
@@ -0,0 +1,116 @@
+package de.dmitrij.patuk.template;
+
+import de.dmitrij.patuk.template.nodes.MyTinyForeachNode;
+import de.dmitrij.patuk.template.nodes.MyTinyTemplate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThreadRecordingItem {
+    private final int id;
+
+    ThreadRecordingItem(int id) {
+        this.id = id;
+    }
+
+    public String getId() {
+        return id + "@" + (Thread.currentThread().isVirtual() ? "v" : "p");
+    }
+}
+
+public class MyTinyParallelForeachTests {
+    ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    MyTinyTemplate parse(String text) {
+        var tokens = new MyTinyTokenizer().scan(text);
+        var template = new MyTinyParser().parseTemplate(new MyTinyTokenStream(tokens));
+        new MyTinySlotResolver().resolve(template);
+        return template;
+    }
+
+    String interpret(MyTinyTemplate template, Object model, MyTinyParallelForeach parallel) {
+        var sink = new MyTinyStringSink();
+        template.render(new MyTinyContext(model, template.getFrameSize()).withParallelForeach(parallel), sink);
+        return sink.toString();
+    }
+
+    String compiled(MyTinyTemplate template, Object model, MyTinyParallelForeach parallel) {
+        var sink = new MyTinyStringSink();
+        new MyTinyTemplateCompiler(parallel).compile(template).render(model, sink);
+        return sink.toString();
+    }
+
+    @Test
+    void parsesParallelFlag() {
+        var template = parse("{{ foreach x : model parallel }}{{ x }}{{ endforeach }}{{ foreach y : model }}{{ endforeach }}");
+        assertTrue(((MyTinyForeachNode) template.getNodes().get(0)).isParallel());
+        assertFalse(((MyTinyForeachNode) template.getNodes().get(1)).isParallel());
+    }
+
+    @Test
+    void keepsTheOrderOfAllChunks() {
+        var items = IntStream.range(0, 1000).boxed().toList();
+        var model = Map.of("outer", "o", "items", items);
+        var template = parse("{{ foreach i : model.items parallel }}{{ i }}{{ model.outer }},{{ endforeach }}");
+        var expected = interpret(template, model, null);
+        var parallel = new MyTinyParallelForeach(executor, 0, 64);
+        assertEquals(expected, interpret(template, model, parallel));
+        assertEquals(expected, compiled(template, model, parallel));
+    }
+
+    @Test
+    void splitsLoopsAboveThresholdWithoutFlag() {
+        var items = IntStream.range(0, 20).mapToObj(ThreadRecordingItem::new).toList();
+        var template = parse("{{ foreach i : model }}{{ i.id }} {{ endforeach }}");
+        var output = interpret(template, items, new MyTinyParallelForeach(executor, 10, 5));
+        //the caller renders the first chunk, the executor the rest
+        assertTrue(output.startsWith("0@p 1@p 2@p 3@p 4@p 5@v"), output);
+        assertTrue(output.endsWith("19@v "), output);
+        assertFalse(interpret(template, items.subList(0, 9), new MyTinyParallelForeach(executor, 10, 5)).contains("@v"));
+    }
+
+    @Test
+    void nestedLoopsUseTheirOwnFrames() {
+        var model = List.of(List.of("a", "b", "c"), List.of("d", "e"), List.of("f"), List.of("g", "h"));
+        var template = parse("{{ foreach row : model parallel }}[{{ foreach cell : row parallel }}{{ cell }}{{ endforeach }}]{{ endforeach }}");
+        var parallel = new MyTinyParallelForeach(executor, 0, 1);
+        assertEquals("[abc][de][f][gh]", interpret(template, model, parallel));
+        assertEquals("[abc][de][f][gh]", compiled(template, model, parallel));
+    }
+
+    @Test
+    void rethrowsErrorsOfOtherChunks() {
+        var parallel = new MyTinyParallelForeach(executor, 0, 1);
+        var ex = assertThrows(IllegalStateException.class, () -> parallel.render(List.of(1, 2, 3), new MyTinyStringSink(),
+                () -> (item, sink) -> {
+                    if (item.equals(3)) {
+                        throw new IllegalStateException("broken item");
+                    }
+                }));
+        assertEquals("broken item", ex.getMessage());
+    }
+
+    @Test
+    void rethrowsJvmErrorsOfOtherChunks() {
+        var parallel = new MyTinyParallelForeach(executor, 0, 1);
+        var ex = assertThrows(StackOverflowError.class, () -> parallel.render(List.of(1, 2, 3), new MyTinyStringSink(),
+                () -> (item, sink) -> {
+                    if (item.equals(3)) {
+                        throw new StackOverflowError("deep item");
+                    }
+                }));
+        assertEquals("deep item", ex.getMessage());
+    }
+}
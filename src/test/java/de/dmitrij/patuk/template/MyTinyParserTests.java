@@ -77,6 +77,25 @@ class MyTinyParserTests {
         assertTrue(expected.equals(result));
     }
 
+    @Test
+    void parsePropertyPathWithKeywordNamesTest() {
+        var input = new MyTinyTokenizer().tokenize("{{ item.block }}{{ model.raw }}{{ page.cache.parallel }}");
+        MyTinyParser parser = new MyTinyParser();
+        var expected = new MyTinyTemplate(List.of(
+                new MyTinyExpressionNode(new MyTinyPropertyPath(List.of(
+                        new MyTinyIdentifier("item"),
+                        new MyTinyIdentifier("block")))),
+                new MyTinyExpressionNode(new MyTinyPropertyPath(List.of(
+                        new MyTinyIdentifier("model"),
+                        new MyTinyIdentifier("raw")))),
+                new MyTinyExpressionNode(new MyTinyPropertyPath(List.of(
+                        new MyTinyIdentifier("page"),
+                        new MyTinyIdentifier("cache"),
+                        new MyTinyIdentifier("parallel"))))));
+        var result = parser.parseTemplate(new MyTinyTokenStream(input));
+        assertTrue(expected.equals(result));
+    }
+
     @Test
     void parseForeachExpressionThrowsExpectAndRemoveLBraceTest() {
         var input = List.of
@@ -0,0 +1,105 @@
+package de.dmitrij.patuk.template;
+
+import de.dmitrij.patuk.template.nodes.MyTinyIdentifier;
+import de.dmitrij.patuk.template.nodes.MyTinyPropertyPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccessorBean {
+    public String publicField = "field";
+
+    public String getName() {
+        return "name";
+    }
+
+    public boolean isActive() {
+        return true;
+    }
+
+    public boolean isPremium() {
+        return true;
+    }
+
+    public String getBroken() {
+        throw new IllegalStateException("broken");
+    }
+}
+
+record AccessorRecord(String title, int count) {
+}
+
+public class MyTinyPropertyAccessorsTests {
+    MyTinyPropertyAccessors accessors;
+
+    @BeforeEach
+    void setup() {
+        accessors = new MyTinyPropertyAccessors();
+    }
+
+    Object read(Object target, String property) {
+        return accessors.get(target.getClass(), property).get(target);
+    }
+
+    @Test
+    void readsGetter() {
+        assertEquals("name", read(new AccessorBean(), "name"));
+    }
+
+    @Test
+    void readsBooleanIsGetter() {
+        assertEquals(true, read(new AccessorBean(), "active"));
+    }
+
+    @Test
+    void readsMethodWithPropertyName() {
+        assertEquals(true, read(new AccessorBean(), "isPremium"));
+    }
+
+    @Test
+    void readsRecordComponents() {
+        var record = new AccessorRecord("title", 3);
+        assertEquals("title", read(record, "title"));
+        assertEquals(3, read(record, "count"));
+    }
+
+    @Test
+    void readsPublicField() {
+        assertEquals("field", read(new AccessorBean(), "publicField"));
+    }
+
+    @Test
+    void cachesMissingProperties() {
+        var first = accessors.get(AccessorBean.class, "unknown");
+        assertSame(MyTinyPropertyAccessor.MISSING, first);
+        assertSame(first, accessors.get(AccessorBean.class, "unknown"));
+        assertNull(first.get(new AccessorBean()));
+    }
+
+    @Test
+    void cachesResolvedAccessors() {
+        assertSame(accessors.get(AccessorBean.class, "name"), accessors.get(AccessorBean.class, "name"));
+    }
+
+    @Test
+    void rendersFailingGetterAsNull() {
+        assertNull(read(new AccessorBean(), "broken"));
+    }
+
+    @Test
+    void contextResolvesMapsBeansAndNulls() {
+        var context = new MyTinyContext(Map.of("bean", new AccessorBean()));
+        assertEquals("name", context.resolve(path("model", "bean", "name")));
+        assertNull(context.resolve(path("model", "missing", "name")));
+        assertEquals(List.of(1), new MyTinyContext(List.of(1)).resolve(path("model")));
+    }
+
+    private MyTinyPropertyPath path(String... names) {
+        return new MyTinyPropertyPath(Arrays.stream(names).map(MyTinyIdentifier::new).toList());
+    }
+}
@@ -0,0 +1,73 @@
+package de.dmitrij.patuk.template;
+
+import de.dmitrij.patuk.template.nodes.MyTinyExpressionNode;
+import de.dmitrij.patuk.template.nodes.MyTinyForeachNode;
+import de.dmitrij.patuk.template.nodes.MyTinyIdentifier;
+import de.dmitrij.patuk.template.nodes.MyTinyTemplate;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MyTinySlotResolverTests {
+    MyTinyTemplate parse(String text) {
+        var tokens = new MyTinyTokenizer().tokenize(text);
+        return new MyTinyParser().parseTemplate(new MyTinyTokenStream(tokens));
+    }
+
+    String render(MyTinyTemplate template, Object model) {
+        var sink = new MyTinyStringSink();
+        template.render(new MyTinyContext(model, template.getFrameSize()), sink);
+        return sink.toString();
+    }
+
+    @Test
+    void bindsLoopVariablesToNestingDepth() {
+        var template = parse("{{ foreach row : model }}{{ foreach cell : row }}{{ cell }}{{ row }}{{ endforeach }}{{ endforeach }}");
+        assertEquals(3, new MyTinySlotResolver().resolve(template));
+        assertEquals(3, template.getFrameSize());
+
+        var outer = (MyTinyForeachNode) template.getNodes().get(0);
+        var inner = (MyTinyForeachNode) outer.getChildren().getNodes().get(0);
+        assertEquals(0, outer.getCollectionName().getPropertyPath().getParts().get(0).getSlot());
+        assertEquals(1, outer.getLoopVar().getSlot());
+        assertEquals(1, inner.getCollectionName().getPropertyPath().getParts().get(0).getSlot());
+        assertEquals(2, inner.getLoopVar().getSlot());
+        var cell = (MyTinyExpressionNode) inner.getChildren().getNodes().get(0);
+        var row = (MyTinyExpressionNode) inner.getChildren().getNodes().get(1);
+        assertEquals(2, cell.getPropertyPath().getParts().get(0).getSlot());
+        assertEquals(1, row.getPropertyPath().getParts().get(0).getSlot());
+    }
+
+    @Test
+    void marksUnknownVariablesAsUndefined() {
+        var template = parse("{{ missing.name }}{{ model }}");
+        new MyTinySlotResolver().resolve(template);
+        var missing = (MyTinyExpressionNode) template.getNodes().get(0);
+        assertEquals(MyTinyIdentifier.UNDEFINED, missing.getPropertyPath().getParts().get(0).getSlot());
+        assertEquals("[a]", render(template, List.of("a")));
+    }
+
+    @Test
+    void innerLoopVariableHidesOuterOne() {
+        var text = "{{ foreach x : model }}{{ foreach x : x }}{{ x }}{{ endforeach }};{{ endforeach }}";
+        var template = parse(text);
+        new MyTinySlotResolver().resolve(template);
+        var model = List.of(List.of("a", "b"), List.of("c"));
+        assertEquals("ab;c;", render(template, model));
+    }
+
+    @Test
+    void rendersTheSameAsUnresolvedTemplate() {
+        var text = "{{ foreach app : model.apps }}{{ app.name }}{{ if app.premium }}*{{ endif }},{{ endforeach }}";
+        var model = Map.of("apps", List.of(
+                Map.of("name", "a", "premium", "true"),
+                Map.of("name", "b", "premium", "")));
+        var resolved = parse(text);
+        new MyTinySlotResolver().resolve(resolved);
+        assertEquals(render(parse(text), model), render(resolved, model));
+        assertEquals("a*,b,", render(resolved, model));
+    }
+}
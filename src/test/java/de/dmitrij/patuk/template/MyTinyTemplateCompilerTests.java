@@ -0,0 +1,84 @@
+package de.dmitrij.patuk.template;
+
+import de.dmitrij.patuk.template.nodes.MyTinyTemplate;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledCat {
+    public String getName() {
+        return "cat";
+    }
+}
+
+class CompiledDog {
+    public String name = "dog";
+}
+
+public class MyTinyTemplateCompilerTests {
+    MyTinyTemplate parse(String text) {
+        var tokens = new MyTinyTokenizer().tokenize(text);
+        var template = new MyTinyParser().parseTemplate(new MyTinyTokenStream(tokens));
+        new MyTinySlotResolver().resolve(template);
+        return template;
+    }
+
+    String interpret(MyTinyTemplate template, Object model) {
+        var sink = new MyTinyStringSink();
+        template.render(new MyTinyContext(model, template.getFrameSize()), sink);
+        return sink.toString();
+    }
+
+    String compiled(MyTinyTemplate template, Object model) {
+        var sink = new MyTinyStringSink();
+        new MyTinyTemplateCompiler().compile(template).render(model, sink);
+        return sink.toString();
+    }
+
+    @Test
+    void rendersLikeTheInterpreter() {
+        var text = "<ul>{{ foreach app : model.apps }}<li>{{ app.name }}{{ if app.premium }}*{{ else }}-{{ endif }}"
+                + "{{ foreach tag : app.tags }}[{{ tag }}]{{ endforeach }}</li>{{ endforeach }}</ul>{{ missing.name }}";
+        var model = Map.of("apps", List.of(
+                Map.of("name", "a", "premium", true, "tags", List.of("x", "y")),
+                Map.of("name", "b", "premium", false, "tags", List.of())));
+        var template = parse(text);
+        assertEquals(interpret(template, model), compiled(template, model));
+    }
+
+    @Test
+    void compilesLogicalConditions() {
+        var template = parse("{{ foreach x : model }}{{ if not x.hidden and x.count or x.pinned }}{{ x.name }}{{ endif }}{{ endforeach }}");
+        var model = List.of(
+                Map.of("name", "a", "hidden", false, "count", 1, "pinned", false),
+                Map.of("name", "b", "hidden", true, "count", 1, "pinned", false),
+                Map.of("name", "c", "hidden", false, "count", 0, "pinned", List.of()),
+                Map.of("name", "d", "hidden", true, "count", 0, "pinned", true));
+        assertEquals("ad", compiled(template, model));
+        assertEquals(interpret(template, model), compiled(template, model));
+    }
+
+    @Test
+    void readsDifferentTypesAtTheSameExpression() {
+        var template = parse("{{ foreach pet : model }}{{ pet.name }},{{ endforeach }}");
+        var model = List.of(new CompiledCat(), new CompiledDog(), new CompiledCat());
+        assertEquals("cat,dog,cat,", compiled(template, model));
+    }
+
+    @Test
+    void loopsOverEmptyAndMissingCollections() {
+        var template = parse("[{{ foreach x : model.items }}{{ x }}{{ endforeach }}]");
+        assertEquals("[]", compiled(template, Map.of("items", List.of())));
+        assertEquals("[]", compiled(template, Map.of()));
+    }
+
+    @Test
+    void refusesTemplatesWithoutSlots() {
+        var tokens = new MyTinyTokenizer().tokenize("{{ model }}");
+        var template = new MyTinyParser().parseTemplate(new MyTinyTokenStream(tokens));
+        assertThrows(RuntimeException.class, () -> new MyTinyTemplateCompiler().compile(template));
+    }
+}
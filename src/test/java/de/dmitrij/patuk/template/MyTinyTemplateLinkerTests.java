@@ -0,0 +1,69 @@
+package de.dmitrij.patuk.template;
+
+import de.dmitrij.patuk.template.nodes.MyTinyTemplate;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MyTinyTemplateLinkerTests {
+    Map<String, String> views = Map.of(
+            "/item", "<li>{{ x }}</li>",
+            "/layout", "<title>{{ block title }}Default{{ endblock }}</title><main>{{ block content }}{{ endblock }}</main>",
+            "/section", "{{ extends \"layout\" }}{{ block content }}<section>{{ block body }}empty{{ endblock }}</section>{{ endblock }}",
+            "/loop", "{{ include \"loop\" }}",
+            "/a", "{{ include \"b\" }}",
+            "/b", "{{ include \"/a\" }}");
+    List<String> parsed = new ArrayList<>();
+
+    MyTinyTemplate parse(String viewName) {
+        parsed.add(viewName);
+        var text = views.containsKey(viewName) ? views.get(viewName) : viewName;
+        return new MyTinyParser().parseTemplate(new MyTinyTokenStream(new MyTinyTokenizer().scan(text)));
+    }
+
+    MyTinyTemplate link(String text) {
+        var linker = new MyTinyTemplateLinker(this::parse);
+        var template = linker.link("/page", new MyTinyParser().parseTemplate(new MyTinyTokenStream(new MyTinyTokenizer().scan(text))));
+        new MyTinySlotResolver().resolve(template);
+        return template;
+    }
+
+    String render(MyTinyTemplate template, Object model) {
+        var sink = new MyTinyStringSink();
+        template.render(new MyTinyContext(model, template.getFrameSize()), sink);
+        return sink.toString();
+    }
+
+    @Test
+    void inlinesIncludesWithTheirOwnCopy() {
+        var template = link("<ul>{{ foreach x : model }}{{ include \"item\" }}{{ endforeach }}</ul>{{ include \"/item\" }}");
+        assertEquals("<ul><li>1</li><li>2</li></ul><li></li>", render(template, List.of(1, 2)));
+        assertEquals(List.of("/item", "/item"), parsed);
+        assertEquals(Set.of("/item"), template.getDependencies());
+    }
+
+    @Test
+    void fillsTheBlocksOfTheLayout() {
+        var template = link("{{ extends \"layout\" }}ignored{{ block content }}<p>{{ model }}</p>{{ endblock }}");
+        assertEquals("<title>Default</title><main><p>hi</p></main>", render(template, "hi"));
+    }
+
+    @Test
+    void extendsLayoutsOverSeveralLevels() {
+        var template = link("{{ extends \"section\" }}{{ block title }}Page{{ endblock }}{{ block body }}{{ model }}{{ endblock }}");
+        assertEquals("<title>Page</title><main><section>hi</section></main>", render(template, "hi"));
+        assertEquals(Set.of("/section", "/layout"), template.getDependencies());
+    }
+
+    @Test
+    void refusesViewsThatIncludeEachOther() {
+        var ex = assertThrows(RuntimeException.class, () -> link("{{ include \"a\" }}"));
+        assertEquals("Views include each other: /page -> /a -> /b -> /a", ex.getMessage());
+        assertThrows(RuntimeException.class, () -> link("{{ include \"loop\" }}"));
+    }
+}
@@ -0,0 +1,71 @@
+package de.dmitrij.patuk.template;
+
+import de.dmitrij.patuk.template.nodes.MyTinyExpressionNode;
+import de.dmitrij.patuk.template.nodes.MyTinyIdentifier;
+import de.dmitrij.patuk.template.nodes.MyTinyIfNode;
+import de.dmitrij.patuk.template.nodes.MyTinyNotNode;
+import de.dmitrij.patuk.template.nodes.MyTinyPropertyPath;
+import de.dmitrij.patuk.template.nodes.MyTinyTemplate;
+import de.dmitrij.patuk.template.nodes.MyTinyTemplateNode;
+import de.dmitrij.patuk.template.nodes.MyTinyTextNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MyTinyTemplateOptimizerTests {
+    MyTinyTemplate template(MyTinyTemplateNode... nodes) {
+        return new MyTinyTemplate(new ArrayList<>(List.of(nodes)));
+    }
+
+    MyTinyExpressionNode expression(String name) {
+        return new MyTinyExpressionNode(new MyTinyPropertyPath(List.of(new MyTinyIdentifier(name))));
+    }
+
+    String render(MyTinyTemplate template, Object model) {
+        var sink = new MyTinyStringSink();
+        template.render(new MyTinyContext(model), sink);
+        return sink.toString();
+    }
+
+    @Test
+    void mergesAdjacentTextNodes() {
+        var template = template(new MyTinyTextNode("<ul>\n  "), new MyTinyTextNode("<li>"), expression("model"),
+                new MyTinyTextNode("</li>"), new MyTinyTextNode("\n</ul>"));
+        var optimized = new MyTinyTemplateOptimizer(false).optimize(template);
+        assertEquals(template(new MyTinyTextNode("<ul>\n  <li>"), expression("model"), new MyTinyTextNode("</li>\n</ul>")),
+                optimized);
+    }
+
+    @Test
+    void collapsesWhitespaceOutsideOfPreservingTags() {
+        var template = template(new MyTinyTextNode("<div>\n    <b>a</b>   <i>b</i>\n\n</div><PRE class=\"x\">  keep\n   this"),
+                expression("model"), new MyTinyTextNode("  too</pre>\n   <p>  x  </p>"));
+        var optimized = new MyTinyTemplateOptimizer(true).optimize(template);
+        assertEquals("<div>\n<b>a</b> <i>b</i>\n</div><PRE class=\"x\">  keep\n   this!  too</pre>\n<p> x </p>",
+                render(optimized, "!"));
+    }
+
+    @Test
+    void dropsEmptyIfBranches() {
+        var empty = new MyTinyIfNode(expression("model"), template(), template());
+        var emptyElse = new MyTinyIfNode(expression("model"), template(new MyTinyTextNode("yes")), template());
+        var optimized = new MyTinyTemplateOptimizer(false).optimize(template(empty, emptyElse));
+
+        assertEquals(1, optimized.getNodes().size());
+        var ifNode = (MyTinyIfNode) optimized.getNodes().get(0);
+        assertNull(ifNode.getElseBranch());
+        assertEquals("yes", render(optimized, true));
+    }
+
+    @Test
+    void negatesIfWithOnlyAnElseBranch() {
+        var onlyElse = new MyTinyIfNode(expression("model"), template(), template(new MyTinyTextNode("no")));
+        var optimized = new MyTinyTemplateOptimizer(false).optimize(template(onlyElse));
+        var expected = new MyTinyIfNode(new MyTinyNotNode(expression("model")), template(new MyTinyTextNode("no")), null);
+        assertEquals(template(expected), optimized);
+        assertEquals("no", render(optimized, false));
+    }
+}
@@ -6,6 +6,8 @@ import org.junit.jupiter.api.Test;
 
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class MyTinyTokenizerTests {
@@ -140,4 +142,30 @@ public class MyTinyTokenizerTests {
         assertTrue(result.equals(expected));
     }
 
+
+    @Test
+    public void scanStoresOffsetsIntoTheInput() {
+        var input = "Hi {{ model.name }}{{ if not x }}!{{ endif }}";
+        var tokens = new MyTinyTokenizer().scan(input);
+        assertEquals(15, tokens.size());
+        assertEquals(MyTinyTokenType.TEXT, tokens.getType(0));
+        assertEquals(0, tokens.getStart(0));
+        assertEquals(3, tokens.getEnd(0));
+        assertEquals(MyTinyTokenType.IDENTIFIER, tokens.getType(2));
+        assertEquals("model", tokens.getText(2));
+        assertEquals(MyTinyTokenType.KEYWORD, tokens.getType(7));
+        assertEquals(MyTinyTokenType.KEYWORD, tokens.getType(8));
+        assertEquals(MyTinyTokenType.IDENTIFIER, tokens.getType(9));
+    }
+
+    @Test
+    public void scanSharesFixedTokensAndKeywords() {
+        var first = new MyTinyTokenizer().scan("{{ foreach a : b.c }}{{ endforeach }}").toList();
+        var second = new MyTinyTokenizer().scan("{{ foreach x : y.z }}").toList();
+        assertSame(MyTinyToken.LBRACE2, first.get(0));
+        assertSame(first.get(1), second.get(1));
+        assertSame(MyTinyToken.COLON, first.get(3));
+        assertSame(MyTinyToken.DOT, first.get(5));
+        assertEquals(new MyTinyToken("endforeach", MyTinyTokenType.KEYWORD), first.get(9));
+    }
 }
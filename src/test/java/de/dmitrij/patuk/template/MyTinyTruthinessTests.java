@@ -0,0 +1,76 @@
+package de.dmitrij.patuk.template;
+
+import de.dmitrij.patuk.template.nodes.MyTinyAndNode;
+import de.dmitrij.patuk.template.nodes.MyTinyExpressionNode;
+import de.dmitrij.patuk.template.nodes.MyTinyIdentifier;
+import de.dmitrij.patuk.template.nodes.MyTinyIfNode;
+import de.dmitrij.patuk.template.nodes.MyTinyNotNode;
+import de.dmitrij.patuk.template.nodes.MyTinyOrNode;
+import de.dmitrij.patuk.template.nodes.MyTinyPropertyPath;
+import de.dmitrij.patuk.template.nodes.MyTinyTemplate;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MyTinyTruthinessTests {
+    MyTinyTemplate parse(String text) {
+        var tokens = new MyTinyTokenizer().tokenize(text);
+        return new MyTinyParser().parseTemplate(new MyTinyTokenStream(tokens));
+    }
+
+    MyTinyExpressionNode path(String name) {
+        return new MyTinyExpressionNode(new MyTinyPropertyPath(List.of(new MyTinyIdentifier("model"), new MyTinyIdentifier(name))));
+    }
+
+    @Test
+    void decidesOnTheValueItself() {
+        assertFalse(MyTinyTruthiness.isTruthy(null));
+        assertTrue(MyTinyTruthiness.isTruthy(true));
+        assertFalse(MyTinyTruthiness.isTruthy(false));
+        assertFalse(MyTinyTruthiness.isTruthy(0));
+        assertTrue(MyTinyTruthiness.isTruthy(-1L));
+        assertFalse(MyTinyTruthiness.isTruthy(0.0));
+        assertFalse(MyTinyTruthiness.isTruthy(Double.NaN));
+        assertFalse(MyTinyTruthiness.isTruthy(new BigDecimal("0.00")));
+        assertFalse(MyTinyTruthiness.isTruthy(""));
+        assertFalse(MyTinyTruthiness.isTruthy("false"));
+        assertTrue(MyTinyTruthiness.isTruthy("no"));
+        assertFalse(MyTinyTruthiness.isTruthy(List.of()));
+        assertTrue(MyTinyTruthiness.isTruthy(List.of(1)));
+        assertFalse(MyTinyTruthiness.isTruthy(Map.of()));
+        assertFalse(MyTinyTruthiness.isTruthy(new int[0]));
+        assertTrue(MyTinyTruthiness.isTruthy(new String[]{"a"}));
+        assertFalse(MyTinyTruthiness.isTruthy(Optional.empty()));
+        assertFalse(MyTinyTruthiness.isTruthy(Optional.of(false)));
+        assertTrue(MyTinyTruthiness.isTruthy(Optional.of("a")));
+        assertTrue(MyTinyTruthiness.isTruthy(new Object()));
+    }
+
+    @Test
+    void parsesNotBeforeAndBeforeOr() {
+        var template = parse("{{ if not model.a and model.b or model.c }}yes{{ endif }}");
+        var ifNode = (MyTinyIfNode) template.getNodes().get(0);
+        var expected = new MyTinyOrNode(new MyTinyAndNode(new MyTinyNotNode(path("a")), path("b")), path("c"));
+        assertEquals(expected, ifNode.getCondition());
+    }
+
+    @Test
+    void rendersLogicalConditions() {
+        var template = parse("{{ if not model.items }}none{{ else }}{{ if model.premium and model.count or model.admin }}+{{ endif }}some{{ endif }}");
+        var model = new HashMap<String, Object>();
+        model.put("items", List.of());
+        assertEquals("none", template.render(new MyTinyContext(model)));
+        model.put("items", List.of(1));
+        model.put("premium", true);
+        model.put("count", 0);
+        assertEquals("some", template.render(new MyTinyContext(model)));
+        model.put("admin", Optional.of(true));
+        assertEquals("+some", template.render(new MyTinyContext(model)));
+    }
+}
@@ -0,0 +1,75 @@
+package de.dmitrij.patuk.template;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MyTinyUtf8SinkTests {
+    @Test
+    void encodesLikeStringGetBytes() {
+        var text = "ascii äöü € 😀 end";
+        var out = new ByteArrayOutputStream();
+        var sink = new MyTinyUtf8Sink(out, 16);
+        sink.write(text);
+        assertEquals(text.getBytes(StandardCharsets.UTF_8).length, sink.getWritten());
+        sink.flush();
+        assertArrayEquals(text.getBytes(StandardCharsets.UTF_8), out.toByteArray());
+    }
+
+    @Test
+    void replacesBrokenSurrogates() {
+        var text = "a\uD83Db";
+        var out = new ByteArrayOutputStream();
+        var sink = new MyTinyUtf8Sink(out);
+        sink.write(text);
+        sink.flush();
+        assertArrayEquals(text.getBytes(StandardCharsets.UTF_8), out.toByteArray());
+    }
+
+    @Test
+    void streamsWhileRendering() {
+        var out = new ByteArrayOutputStream();
+        var sink = new MyTinyUtf8Sink(out, 16);
+        sink.write("0123456789012345678901234567890123456789");
+        //the buffer is smaller than the text, so some bytes already reached the stream
+        assertTrue(out.size() >= 32);
+        sink.flush();
+        assertEquals(40, out.size());
+    }
+
+    @Test
+    void rendersTemplateIntoSink() {
+        var tokens = new MyTinyTokenizer().tokenize("<ul>{{ foreach v : model }}<li>{{ v }}</li>{{ endforeach }}</ul>");
+        var template = new MyTinyParser().parseTemplate(new MyTinyTokenStream(tokens));
+        var out = new ByteArrayOutputStream();
+        var sink = new MyTinyUtf8Sink(out);
+        template.render(new MyTinyContext(List.of("ä", "b")), sink);
+        sink.flush();
+        assertEquals("<ul><li>ä</li><li>b</li></ul>", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void copiesPreEncodedTextBetweenWrites() {
+        var out = new ByteArrayOutputStream();
+        var sink = new MyTinyUtf8Sink(out, 16);
+        var small = "<b>ä</b>";
+        var large = "<p>a static text larger than the buffer €</p>";
+        sink.write("x");
+        sink.writeEncoded(small, small.getBytes(StandardCharsets.UTF_8));
+        sink.writeEncoded(large, large.getBytes(StandardCharsets.UTF_8));
+        sink.write("y");
+        sink.flush();
+        assertEquals("x" + small + large + "y", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void stringSinkUsesTheTextOfEncodedWrites() {
+        var sink = new MyTinyStringSink();
+        sink.writeEncoded("äb", "äb".getBytes(StandardCharsets.UTF_8));
+        assertEquals("äb", sink.toString());
+    }
+}